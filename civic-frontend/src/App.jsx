@@ -21,6 +21,7 @@ const RegionalAdminPanel   = lazy(() => import('./pages/RegionalAdminPanel'))
 const RegionalDashboard    = lazy(() => import('./pages/RegionalDashboard'))
 const ZonePerformance      = lazy(() => import('./pages/ZonePerformance'))
 const AdminAnalytics      = lazy(() => import('./pages/AdminAnalytics'))
+const SlaBreaches          = lazy(() => import('./pages/SlaBreaches'))
 const OAuth2Redirect      = lazy(() => import('./pages/OAuth2Redirect'))
 const NotFound             = lazy(() => import('./pages/NotFound'))
 
@@ -62,6 +63,7 @@ export default function App() {
             {/* Regional Admin */}
             <Route path="/regional"       element={<RegionalAdminRoute><RegionalDashboard /></RegionalAdminRoute>} />
             <Route path="/regional/analytics" element={<RegionalAdminRoute><AdminAnalytics /></RegionalAdminRoute>} />
+            <Route path="/sla-breaches"       element={<RegionalAdminRoute><SlaBreaches /></RegionalAdminRoute>} />
 
             {/* 404 */}
             <Route path="*" element={<Navigate to="/" replace />} />
@@ -25,9 +25,16 @@ api.interceptors.request.use(
   (error) => Promise.reject(error)
 )
 
-// ── Response Interceptor — handle 401 globally ────────────────────────────────
+// ── Response Interceptor — token renewal + 401 handling ───────────────────────
 api.interceptors.response.use(
-  (response) => response,
+  (response) => {
+    // Backend renews short-lived tokens via this header
+    const renewed = response.headers['x-auth-token']
+    if (renewed) {
+      localStorage.setItem('token', renewed)
+    }
+    return response
+  },
   (error) => {
     if (error.response?.status === 401) {
       // Token expired or invalid — clear storage and redirect to login
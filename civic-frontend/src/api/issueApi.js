@@ -2,7 +2,17 @@ import api from './axiosConfig'
 
 export const issueApi = {
 
-  getAll:  ()     => api.get('/api/issues'),
+  // Full unpaged list (explicit opt-in on the backend)
+  getAll:  ()     => api.get('/api/issues?all=true'),
+  // Keyset-paginated feed: pass back data.nextCursor to load the next page
+  getFeed: (cursor, size = 20) =>
+    api.get('/api/issues', { params: { cursor, size } }),
+  // Admin queue ranked by live priority: ask for data.page + 1 while data.hasMore
+  getQueue: (page = 0, size = 20) =>
+    api.get('/api/issues/queue', { params: { page, size } }),
+  // SLA breach snapshot of a scheduler run (latest if no date): ask for data.page + 1 while data.hasMore
+  getSlaBreaches: (date, zone, page = 0, size = 50) =>
+    api.get('/api/sla-breaches', { params: { date, zone, page, size } }),
   getMine: ()     => api.get('/api/issues?mine=true'),
   getById: (id)   => api.get(`/api/issues/${id}`),
   create:  (data) => api.post('/api/issues', data),
@@ -53,4 +63,8 @@ export const issueApi = {
   // Check if current user has upvoted
   getUpvoteStatus: (id) =>
     api.get(`/api/issues/${id}/upvote`),
+
+  // Upvote state for many issues in one call → { [id]: true|false }
+  getUpvoteStatuses: (issueIds) =>
+    api.post('/api/issues/upvotes/status', { issueIds }),
 }
@@ -1,6 +1,15 @@
 import api from './axiosConfig'
 
 export const notificationApi = {
-  /** GET /api/notifications */
-  getAll: () => api.get('/api/notifications'),
+  /** GET /api/notifications?cursor=&size=&unread= — one page, newest first */
+  getPage: (params = {}) => api.get('/api/notifications', { params }),
+
+  /** GET /api/notifications/unread-count */
+  getUnreadCount: () => api.get('/api/notifications/unread-count'),
+
+  /** PUT /api/notifications/read */
+  markRead: (ids) => api.put('/api/notifications/read', { ids }),
+
+  /** PUT /api/notifications/read-all */
+  markAllRead: () => api.put('/api/notifications/read-all'),
 }
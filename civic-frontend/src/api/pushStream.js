@@ -0,0 +1,79 @@
+// ── Shared Server-Sent Events connection to /api/stream ────────────────────────
+// EventSource cannot send the JWT header, so the stream is read with fetch and
+// parsed here. One connection is shared by every subscriber and closed when the
+// last one leaves. Reconnects resume from the last event id; a "resync" event
+// means the server could not replay the gap and listeners should refetch.
+const BASE_URL = import.meta.env.VITE_API_BASE_URL || ''
+
+const listeners = new Set()
+let controller  = null
+let lastEventId = null
+let retryMs     = 3000
+
+/** listener(type, data) — returns an unsubscribe function */
+export function subscribePush(listener) {
+  listeners.add(listener)
+  if (!controller) connect()
+  return () => {
+    listeners.delete(listener)
+    if (listeners.size === 0 && controller) {
+      controller.abort()
+      controller = null
+    }
+  }
+}
+
+async function connect() {
+  const token = localStorage.getItem('token')
+  if (!token) return
+  const ctrl = new AbortController()
+  controller = ctrl
+
+  try {
+    const headers = { Authorization: `Bearer ${token}`, Accept: 'text/event-stream' }
+    if (lastEventId) headers['Last-Event-ID'] = lastEventId
+    const res = await fetch(`${BASE_URL}/api/stream`, { headers, signal: ctrl.signal })
+    if (res.status === 401 || res.status === 403) {
+      // Signed out; the next API call takes care of the redirect
+      if (controller === ctrl) controller = null
+      return
+    }
+    if (!res.ok || !res.body) throw new Error(`Stream failed: ${res.status}`)
+
+    const reader = res.body.pipeThrough(new TextDecoderStream()).getReader()
+    let buffer = ''
+    for (;;) {
+      const { value, done } = await reader.read()
+      if (done) break
+      buffer += value
+      let match
+      while ((match = /\r?\n\r?\n/.exec(buffer))) {
+        handleBlock(buffer.slice(0, match.index))
+        buffer = buffer.slice(match.index + match[0].length)
+      }
+    }
+  } catch {
+    if (ctrl.signal.aborted) return
+  }
+
+  setTimeout(() => { if (controller === ctrl) connect() }, retryMs)
+}
+
+function handleBlock(block) {
+  let type = 'message'
+  let data = ''
+  for (const line of block.split(/\r?\n/)) {
+    if (!line || line.startsWith(':')) continue   // heartbeat / comment
+    const colon = line.indexOf(':')
+    const field = colon < 0 ? line : line.slice(0, colon)
+    const value = colon < 0 ? '' : line.slice(colon + 1).replace(/^ /, '')
+    if (field === 'id') lastEventId = value
+    else if (field === 'event') type = value
+    else if (field === 'data') data += (data ? '\n' : '') + value
+    else if (field === 'retry' && !isNaN(Number(value))) retryMs = Number(value)
+  }
+  if (!data) return
+  let payload
+  try { payload = JSON.parse(data) } catch { payload = data }
+  listeners.forEach((listener) => listener(type, payload))
+}
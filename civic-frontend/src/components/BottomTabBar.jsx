@@ -3,6 +3,7 @@ import { useAuth } from '../context/AuthContext'
 import { useTranslation } from 'react-i18next'
 import { useEffect, useState } from 'react'
 import { notificationApi } from '../api/notificationApi'
+import { subscribePush } from '../api/pushStream'
 
 export default function BottomTabBar() {
   const { user } = useAuth()
@@ -15,16 +16,16 @@ export default function BottomTabBar() {
   useEffect(() => {
     if (!user) return
     const fetchCount = () => {
-      notificationApi.getAll()
-        .then(res => {
-          const count = (res.data.data || []).filter(n => !n.read).length
-          setUnread(count)
-        })
+      notificationApi.getUnreadCount()
+        .then(res => setUnread(res.data.data?.unread || 0))
         .catch(() => {})
     }
     fetchCount()
-    const int = setInterval(fetchCount, 30000)
-    return () => clearInterval(int)
+    return subscribePush((type, data) => {
+      if (type === 'unread') setUnread(data.unread || 0)
+      else if (type === 'notification') setUnread(n => n + 1)
+      else if (type === 'resync') fetchCount()
+    })
   }, [user])
 
   if (!user) return null
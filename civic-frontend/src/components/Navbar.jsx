@@ -2,6 +2,7 @@ import { useEffect, useState } from 'react'
 import { Link, NavLink, useNavigate } from 'react-router-dom'
 import { useAuth } from '../context/AuthContext'
 import { notificationApi } from '../api/notificationApi'
+import { subscribePush } from '../api/pushStream'
 import logo from '../assets/logo.png'
 import LanguageToggle from './LanguageToggle'
 import { useTranslation } from 'react-i18next'
@@ -20,12 +21,17 @@ export default function Navbar() {
 
   useEffect(() => {
     if (!user) return
-    notificationApi.getAll()
-      .then(res => {
-        const count = (res.data.data || []).filter(n => !n.read).length
-        setUnread(count)
-      })
-      .catch(() => {})
+    const fetchCount = () => {
+      notificationApi.getUnreadCount()
+        .then(res => setUnread(res.data.data?.unread || 0))
+        .catch(() => {})
+    }
+    fetchCount()
+    return subscribePush((type, data) => {
+      if (type === 'unread') setUnread(data.unread || 0)
+      else if (type === 'notification') setUnread(n => n + 1)
+      else if (type === 'resync') fetchCount()
+    })
   }, [user])
 
   const toggleTheme = () => {
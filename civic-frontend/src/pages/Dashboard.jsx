@@ -1,6 +1,7 @@
 import { useState, useEffect, useCallback } from 'react'
 import { Link } from 'react-router-dom'
 import { issueApi } from '../api/issueApi'
+import { subscribePush } from '../api/pushStream'
 import { useAuth } from '../context/AuthContext'
 import IssueCard from '../components/IssueCard'
 import Spinner from '../components/Spinner'
@@ -9,6 +10,25 @@ import { useTranslation } from 'react-i18next'
 
 const FILTERS = ['ALL', 'PENDING', 'IN_PROGRESS', 'RESOLVED']
 
+// Bulk requests (backend accepts up to 200 ids each) fill hasUpvoted for
+// every card; on failure the cards simply start un-voted
+const STATUS_BATCH = 200
+
+async function withUpvoteStatus(list) {
+  if (list.length === 0) return list
+  try {
+    const ids = list.map(i => i.id)
+    const batches = []
+    for (let n = 0; n < ids.length; n += STATUS_BATCH) {
+      batches.push(issueApi.getUpvoteStatuses(ids.slice(n, n + STATUS_BATCH)))
+    }
+    const status = Object.assign({}, ...(await Promise.all(batches)).map(r => r.data.data || {}))
+    return list.map(i => ({ ...i, hasUpvoted: !!status[i.id] }))
+  } catch {
+    return list
+  }
+}
+
 export default function Dashboard() {
   const { user } = useAuth()
   const [issues,  setIssues]  = useState([])
@@ -26,7 +46,8 @@ export default function Dashboard() {
       const res = tab === 'mine'
         ? await issueApi.getMine()
         : await issueApi.getAll()
-      setIssues(res.data.data || [])
+      const list = res.data.data || []
+      setIssues(await withUpvoteStatus(list))
     } catch {
       setError('System communication error. Please refresh the dashboard.')
     } finally {
@@ -36,6 +57,15 @@ export default function Dashboard() {
 
   useEffect(() => { fetchIssues() }, [fetchIssues])
 
+  // Status changes arrive over the push stream instead of by refetching
+  useEffect(() => subscribePush((type, data) => {
+    if (type === 'issue-status') {
+      setIssues(prev => prev.map(i => i.id === data.issueId ? { ...i, status: data.status } : i))
+    } else if (type === 'resync') {
+      fetchIssues()
+    }
+  }), [fetchIssues])
+
   const visible = issues.filter((i) => {
     const matchStatus = filter === 'ALL' || i.status === filter
     const q = search.toLowerCase()
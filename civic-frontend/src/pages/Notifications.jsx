@@ -1,21 +1,52 @@
-import { useState, useEffect } from 'react'
+import { useState, useEffect, useCallback } from 'react'
 import { notificationApi } from '../api/notificationApi'
+import { subscribePush } from '../api/pushStream'
 import { timeAgo } from '../utils/helpers'
 import Spinner from '../components/Spinner'
 import AlertMessage from '../components/AlertMessage'
 
 export default function Notifications() {
   const [notifications, setNotifications] = useState([])
+  const [cursor,  setCursor]  = useState(null)
   const [loading, setLoading] = useState(true)
+  const [loadingMore, setLoadingMore] = useState(false)
   const [error,   setError]   = useState(null)
 
-  useEffect(() => {
-    notificationApi.getAll()
-      .then((res) => setNotifications(res.data.data || []))
+  const load = useCallback((after) => {
+    const append = Boolean(after)
+    append ? setLoadingMore(true) : setLoading(true)
+    notificationApi.getPage({ cursor: after || undefined, size: 20 })
+      .then((res) => {
+        const data = res.data.data
+        setNotifications(prev => append ? [...prev, ...(data.items || [])] : (data.items || []))
+        setCursor(data.nextCursor)
+      })
       .catch(() => setError('Notification feed currently unavailable.'))
-      .finally(() => setLoading(false))
+      .finally(() => append ? setLoadingMore(false) : setLoading(false))
   }, [])
 
+  useEffect(() => { load(null) }, [load])
+
+  useEffect(() => subscribePush((type, data) => {
+    if (type === 'notification') {
+      setNotifications(prev => prev.some(n => n.id === data.id) ? prev : [data, ...prev])
+    } else if (type === 'unread' && data.unread === 0) {
+      setNotifications(prev => prev.map(n => ({ ...n, read: true })))
+    } else if (type === 'resync') {
+      load(null)
+    }
+  }), [load])
+
+  const markRead = (id) => {
+    setNotifications(prev => prev.map(n => n.id === id ? { ...n, read: true } : n))
+    notificationApi.markRead([id]).catch(() => {})
+  }
+
+  const markAllRead = () => {
+    setNotifications(prev => prev.map(n => ({ ...n, read: true })))
+    notificationApi.markAllRead().catch(() => {})
+  }
+
   const unread = notifications.filter(n => !n.read)
   const read   = notifications.filter(n => n.read)
 
@@ -36,6 +67,12 @@ export default function Notifications() {
               {unread.length} Pending Actions
            </div>
         )}
+        {unread.length > 0 && (
+           <button onClick={markAllRead}
+             className="text-[11px] font-black text-brand-blue uppercase tracking-widest hover:underline whitespace-nowrap">
+              Mark all read
+           </button>
+        )}
       </div>
 
       {loading ? (
@@ -59,7 +96,7 @@ export default function Notifications() {
                  <div className="h-px flex-1 bg-light-border dark:bg-dark-border opacity-50" />
               </h2>
               <div className="space-y-4">
-                {unread.map((n) => <NotificationItem key={n.id} n={n} />)}
+                {unread.map((n) => <NotificationItem key={n.id} n={n} onRead={markRead} />)}
               </div>
             </section>
           )}
@@ -76,17 +113,26 @@ export default function Notifications() {
               </div>
             </section>
           )}
+
+          {cursor && (
+            <div className="text-center">
+              <button onClick={() => load(cursor)} disabled={loadingMore}
+                className="text-[11px] font-black text-brand-blue uppercase tracking-widest hover:underline disabled:opacity-50">
+                {loadingMore ? 'Loading…' : 'Load more'}
+              </button>
+            </div>
+          )}
         </div>
       )}
     </div>
   )
 }
 
-function NotificationItem({ n }) {
+function NotificationItem({ n, onRead }) {
   const isPriority = !n.read
   
   return (
-    <div className={`group relative flex items-start gap-6 p-6 rounded-2xl border transition-all duration-300 ${
+    <div onClick={isPriority && onRead ? () => onRead(n.id) : undefined} className={`group relative flex items-start gap-6 p-6 rounded-2xl border transition-all duration-300 ${
       isPriority 
         ? 'bg-light-surface dark:bg-dark-surface border-brand-blue/30 shadow-lg shadow-brand-blue/5' 
         : 'bg-light-bg/50 dark:bg-dark-bg/50 border-light-border/40 dark:border-dark-border/40 grayscale opacity-70 hover:grayscale-0 hover:opacity-100'
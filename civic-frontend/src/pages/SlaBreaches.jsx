@@ -0,0 +1,110 @@
+import { useState, useEffect, useCallback } from 'react'
+import { Link, useSearchParams } from 'react-router-dom'
+import { issueApi } from '../api/issueApi'
+import { useAuth } from '../context/AuthContext'
+
+const ZONES = ['NORTH', 'SOUTH', 'EAST', 'WEST', 'CENTRAL', 'UNASSIGNED']
+
+/**
+ * Paginated list of issues past SLA in one SlaAlertScheduler run.
+ * Opened from the daily SLA digest notification (?date=YYYY-MM-DD).
+ */
+export default function SlaBreaches() {
+  const { user } = useAuth()
+  const [searchParams] = useSearchParams()
+  const date = searchParams.get('date') || undefined
+  const isSuperAdmin = user?.role === 'ADMIN'
+
+  const [zone,     setZone]     = useState('')
+  const [items,    setItems]    = useState([])
+  const [nextPage, setNextPage] = useState(null)
+  const [loading,  setLoading]  = useState(true)
+  const [error,    setError]    = useState(null)
+
+  const load = useCallback(async (page, append) => {
+    setLoading(true)
+    setError(null)
+    try {
+      const res  = await issueApi.getSlaBreaches(date, zone || undefined, page)
+      const data = res.data.data
+      setItems(prev => append ? [...prev, ...data.items] : data.items)
+      setNextPage(data.hasMore ? data.page + 1 : null)
+    } catch {
+      setError('Failed to load SLA breaches.')
+    } finally {
+      setLoading(false)
+    }
+  }, [date, zone])
+
+  useEffect(() => { load(0, false) }, [load])
+
+  return (
+    <div className="max-w-5xl mx-auto px-4 sm:px-6 py-8">
+      <div className="flex flex-col sm:flex-row sm:items-end justify-between gap-4 mb-6">
+        <div>
+          <h1 className="text-2xl font-bold text-[#1F2328] dark:text-[#E6EDF3]">SLA Breaches</h1>
+          <p className="text-sm text-[#57606A] dark:text-[#8B949E]">
+            {date ? `Snapshot of ${date}` : 'Latest snapshot'} — longest waiting first
+          </p>
+        </div>
+        {isSuperAdmin && (
+          <select value={zone} onChange={e => setZone(e.target.value)}
+            className="text-sm rounded-md border border-[#D0D7DE] dark:border-[#30363D]
+                       bg-white dark:bg-[#0D1117] px-3 py-2">
+            <option value="">All zones</option>
+            {ZONES.map(z => <option key={z} value={z}>{z}</option>)}
+          </select>
+        )}
+      </div>
+
+      {error && (
+        <div className="rounded-lg border border-red-200 dark:border-red-900/50
+                        bg-red-50 dark:bg-red-900/10 p-4 mb-4 text-sm text-red-600 dark:text-red-400">
+          {error}
+        </div>
+      )}
+
+      <div className="rounded-lg border border-[#D0D7DE] dark:border-[#30363D] overflow-hidden">
+        <table className="w-full text-sm">
+          <thead className="bg-[#F6F8FA] dark:bg-[#161B22] text-left text-[#57606A] dark:text-[#8B949E]">
+            <tr>
+              <th className="px-4 py-2 font-medium">Issue</th>
+              <th className="px-4 py-2 font-medium">Zone</th>
+              <th className="px-4 py-2 font-medium text-right">Days open</th>
+            </tr>
+          </thead>
+          <tbody>
+            {items.map(b => (
+              <tr key={b.id} className="border-t border-[#D0D7DE] dark:border-[#30363D]">
+                <td className="px-4 py-2">
+                  <Link to={`/issues/${b.issueId}`}
+                    className="text-[#1B3A6B] dark:text-[#4A90D9] hover:underline">
+                    #{b.issueId} {b.title}
+                  </Link>
+                </td>
+                <td className="px-4 py-2">{b.zone}</td>
+                <td className="px-4 py-2 text-right font-semibold text-[#C0392B]">{b.daysPending}</td>
+              </tr>
+            ))}
+            {!loading && items.length === 0 && (
+              <tr>
+                <td colSpan={3} className="px-4 py-8 text-center text-[#57606A] dark:text-[#8B949E]">
+                  No SLA breaches in this snapshot.
+                </td>
+              </tr>
+            )}
+          </tbody>
+        </table>
+      </div>
+
+      {nextPage !== null && (
+        <div className="text-center mt-4">
+          <button onClick={() => load(nextPage, true)} disabled={loading}
+            className="text-sm font-medium text-[#1B3A6B] dark:text-[#4A90D9] hover:underline disabled:opacity-50">
+            {loading ? 'Loading…' : 'Load more'}
+          </button>
+        </div>
+      )}
+    </div>
+  )
+}
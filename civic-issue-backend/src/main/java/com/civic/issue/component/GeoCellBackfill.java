@@ -0,0 +1,39 @@
+package com.civic.issue.component;
+
+import com.civic.issue.service.DuplicateDetectionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off backfill of issues.geo_cell for rows created before the column
+ * existed. Runs in small transactions at startup and is a no-op once every
+ * issue with coordinates has a cell.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeoCellBackfill {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final DuplicateDetectionService duplicateDetectionService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            int total = 0;
+            int updated;
+            do {
+                updated = duplicateDetectionService.backfillGeoCells(BATCH_SIZE);
+                total += updated;
+            } while (updated == BATCH_SIZE);
+
+            if (total > 0) log.info("[GeoCell] Backfilled geo_cell for {} issues", total);
+        } catch (Exception ex) {
+            log.error("[GeoCell] Backfill failed: {}", ex.getMessage());
+        }
+    }
+}
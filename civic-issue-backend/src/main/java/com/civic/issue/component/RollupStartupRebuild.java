@@ -0,0 +1,38 @@
+package com.civic.issue.component;
+
+import com.civic.issue.service.IssueRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seeds the analytics rollup tables on first start.
+ * Once populated they are kept current by IssueRollupService on every write;
+ * an admin can force a full recompute via POST /api/analytics/rollups/rebuild.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RollupStartupRebuild {
+
+    private final IssueRollupService rollupService;
+
+    @Value("${app.analytics.rollups.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) return;
+        try {
+            if (rollupService.isEmpty()) {
+                log.info("[Rollups] Tables empty — building from issues...");
+                rollupService.rebuild();
+            }
+        } catch (Exception ex) {
+            log.error("[Rollups] Startup rebuild failed: {}", ex.getMessage());
+        }
+    }
+}
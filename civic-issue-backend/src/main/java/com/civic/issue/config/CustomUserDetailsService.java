@@ -1,12 +1,11 @@
 package com.civic.issue.config;
 
 import com.civic.issue.entity.User;
-import com.civic.issue.repository.UserRepository;
+import com.civic.issue.service.UserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -14,12 +13,15 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
+    /**
+     * Served from UserCache; a new UserDetails is built per call because
+     * Spring Security erases credentials on the instance it authenticates.
+     */
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        User user = userCache.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
         // Fallback for password if null (common for OAuth-created accounts)
@@ -5,6 +5,7 @@ import com.civic.issue.security.CustomOAuth2UserService;
 import com.civic.issue.security.OAuth2AuthenticationSuccessHandler;
 import com.civic.issue.security.OAuth2AuthenticationFailureHandler;
 import com.civic.issue.security.OAuth2ActionStoreFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -69,6 +70,9 @@ public class SecurityConfig {
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
 
+                        // ── Async re-dispatches of SSE streams were authorised on the initial request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // ── Public endpoints ──────────────────────────────────────
                         .requestMatchers(
                                 "/api/auth/**",
@@ -106,7 +110,7 @@ public class SecurityConfig {
                         .hasAnyRole("ADMIN", "REGIONAL_ADMIN")          // ✅ NEW
 
                         // ── Notifications — authenticated ──────────────────────────
-                        .requestMatchers("/api/notifications").authenticated()
+                        .requestMatchers("/api/notifications", "/api/notifications/**").authenticated()
 
                         // ── Everything else requires auth ──────────────────────────
                         .anyRequest().authenticated()
@@ -132,6 +136,7 @@ public class SecurityConfig {
         config.setAllowedMethods(
                 List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
+        config.setExposedHeaders(List.of(JwtAuthenticationFilter.RENEWED_TOKEN_HEADER));
         UrlBasedCorsConfigurationSource source =
                 new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
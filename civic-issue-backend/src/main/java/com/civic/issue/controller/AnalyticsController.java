@@ -3,13 +3,16 @@ package com.civic.issue.controller;
 import com.civic.issue.dto.AnalyticsResponse;
 import com.civic.issue.dto.response.ApiResponse;
 import com.civic.issue.entity.User;
-import com.civic.issue.repository.UserRepository;
 import com.civic.issue.service.AnalyticsService;
+import com.civic.issue.service.IssueRollupService;
+import com.civic.issue.service.UserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -19,7 +22,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
-    private final UserRepository userRepository;
+    private final IssueRollupService rollupService;
+    private final UserCache userCache;
 
     @GetMapping("/admin")
     public ResponseEntity<ApiResponse<AnalyticsResponse>> getAdminAnalytics() {
@@ -30,10 +34,18 @@ public class AnalyticsController {
     @GetMapping("/regional")
     public ResponseEntity<ApiResponse<AnalyticsResponse>> getRegionalAnalytics() {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
+        User user = userCache.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
         
         AnalyticsResponse data = analyticsService.getRegionalAnalytics(user.getZone());
         return ResponseEntity.ok(ApiResponse.success(data));
     }
+
+    // Recompute the analytics rollup tables from the issues table
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<String>> rebuildRollups() {
+        rollupService.rebuild();
+        return ResponseEntity.ok(ApiResponse.success("Analytics rollups rebuilt", null));
+    }
 }
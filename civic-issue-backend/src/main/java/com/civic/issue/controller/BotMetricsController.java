@@ -0,0 +1,34 @@
+package com.civic.issue.controller;
+
+import com.civic.issue.dto.response.ApiResponse;
+import com.civic.issue.service.BotMessageDispatcher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class BotMetricsController {
+
+    private final BotMessageDispatcher dispatcher;
+
+    /**
+     * GET /api/admin/bot-metrics
+     * Queue depth, throughput and latency of inbound bot message handling.
+     * ADMIN only.
+     */
+    @GetMapping("/bot-metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getBotMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("dispatcher", dispatcher.stats());
+        return ResponseEntity.ok(ApiResponse.success(metrics));
+    }
+}
@@ -0,0 +1,37 @@
+package com.civic.issue.controller;
+
+import com.civic.issue.dto.response.ApiResponse;
+import com.civic.issue.service.UpvotedIssueCache;
+import com.civic.issue.service.UserCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class CacheStatsController {
+
+    private final UserCache         userCache;
+    private final UpvotedIssueCache upvotedIssueCache;
+
+    /**
+     * GET /api/admin/cache-stats
+     * Size and hit/miss counters of the in-process caches.
+     * ADMIN only.
+     */
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("users", userCache.stats());
+        stats.put("upvotes", upvotedIssueCache.stats());
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
+}
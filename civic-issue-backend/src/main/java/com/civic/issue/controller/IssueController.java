@@ -34,14 +34,50 @@ public class IssueController {
         this.aiValidationService = aiValidationService;
     }
 
+    /**
+     * GET /api/issues
+     * Keyset-paginated feed ordered by priority. Pass the returned nextCursor
+     * back as ?cursor= to fetch the following page.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<IssueResponse>>> getAllIssues(
-            @RequestParam(defaultValue = "false") boolean mine,
+    public ResponseEntity<ApiResponse<CursorPage<IssueResponse>>> getIssueFeed(
+            @RequestParam(required = false)    String cursor,
+            @RequestParam(defaultValue = "20") int    size) {
+        return ResponseEntity.ok(ApiResponse.success(issueService.getIssueFeed(cursor, size)));
+    }
+
+    /**
+     * GET /api/issues?all=true
+     * The full unpaged list, highest priority first (legacy behaviour).
+     */
+    @GetMapping(params = {"all=true", "mine!=true"})
+    public ResponseEntity<ApiResponse<List<IssueResponse>>> getAllIssues() {
+        return ResponseEntity.ok(ApiResponse.success(issueService.getAllIssues()));
+    }
+
+    /**
+     * GET /api/issues?mine=true
+     * The caller's own issues, newest first.
+     */
+    @GetMapping(params = "mine=true")
+    public ResponseEntity<ApiResponse<List<IssueResponse>>> getMyIssues(
             @AuthenticationPrincipal UserDetails userDetails) {
-        List<IssueResponse> issues = mine
-                ? issueService.getMyIssues(userDetails.getUsername())
-                : issueService.getAllIssues();
-        return ResponseEntity.ok(ApiResponse.success(issues));
+        return ResponseEntity.ok(ApiResponse.success(
+                issueService.getMyIssues(userDetails.getUsername())));
+    }
+
+    /**
+     * GET /api/issues/queue?page=0&size=20
+     * Open issues ordered by priority computed at query time (age is always
+     * current, no stored score involved). Ask for page + 1 while hasMore.
+     * ADMIN or REGIONAL_ADMIN.
+     */
+    @GetMapping("/queue")
+    @PreAuthorize("hasAnyRole('ADMIN', 'REGIONAL_ADMIN')")
+    public ResponseEntity<ApiResponse<PageResponse<IssueResponse>>> getPriorityQueue(
+            @RequestParam(defaultValue = "0")  int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.success(issueService.getLivePriorityQueue(page, size)));
     }
 
     @GetMapping("/{id}")
@@ -1,15 +1,18 @@
 package com.civic.issue.controller;
 
+import com.civic.issue.dto.request.MarkNotificationsReadRequest;
 import com.civic.issue.dto.response.ApiResponse;
+import com.civic.issue.dto.response.CursorPage;
 import com.civic.issue.dto.response.NotificationResponse;
 import com.civic.issue.service.NotificationService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -19,14 +22,50 @@ public class NotificationController {
     private final NotificationService notificationService;
 
     /**
-     * GET /api/notifications
-     * Fetch all notifications for the currently authenticated user.
+     * GET /api/notifications?cursor=&size=20&unread=false
+     * The current user's notifications, newest first. Pass the returned
+     * nextCursor back as ?cursor= to fetch the following page.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<NotificationResponse>>> getMyNotifications(
+    public ResponseEntity<ApiResponse<CursorPage<NotificationResponse>>> getMyNotifications(
+            @RequestParam(required = false)       String  cursor,
+            @RequestParam(defaultValue = "20")    int     size,
+            @RequestParam(defaultValue = "false") boolean unread,
             @AuthenticationPrincipal UserDetails userDetails) {
-        List<NotificationResponse> notifications =
-                notificationService.getMyNotifications(userDetails.getUsername());
-        return ResponseEntity.ok(ApiResponse.success(notifications));
+        return ResponseEntity.ok(ApiResponse.success(
+                notificationService.getMyNotifications(userDetails.getUsername(), cursor, size, unread)));
+    }
+
+    /**
+     * GET /api/notifications/unread-count
+     * Badge count, read from the per-user counter.
+     */
+    @GetMapping("/unread-count")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getUnreadCount(
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(ApiResponse.success(
+                Map.of("unread", notificationService.getUnreadCount(userDetails.getUsername()))));
+    }
+
+    /**
+     * PUT /api/notifications/read  { "ids": [..] }
+     * Marks the given notifications read; returns the unread count left.
+     */
+    @PutMapping("/read")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> markRead(
+            @Valid @RequestBody MarkNotificationsReadRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(ApiResponse.success(
+                Map.of("unread", notificationService.markRead(userDetails.getUsername(), request.getIds()))));
+    }
+
+    /**
+     * PUT /api/notifications/read-all
+     */
+    @PutMapping("/read-all")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> markAllRead(
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(ApiResponse.success(
+                Map.of("unread", notificationService.markAllRead(userDetails.getUsername()))));
     }
 }
@@ -0,0 +1,43 @@
+package com.civic.issue.controller;
+
+import com.civic.issue.dto.response.ApiResponse;
+import com.civic.issue.service.MessageOutbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/outbox")
+@RequiredArgsConstructor
+public class OutboxController {
+
+    private final MessageOutbox outbox;
+
+    /**
+     * GET /api/admin/outbox
+     * Outbound WhatsApp/SMS queue depth by status, delivery counters and lag.
+     * ADMIN only.
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getOutboxStats() {
+        return ResponseEntity.ok(ApiResponse.success(outbox.stats()));
+    }
+
+    /**
+     * POST /api/admin/outbox/requeue-dead
+     * Retries every dead-lettered message from scratch. ADMIN only.
+     */
+    @PostMapping("/requeue-dead")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> requeueDead() {
+        int requeued = outbox.requeueDead();
+        return ResponseEntity.ok(ApiResponse.success(Map.<String, Object>of("requeued", requeued)));
+    }
+}
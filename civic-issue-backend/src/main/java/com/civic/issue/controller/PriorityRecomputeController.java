@@ -0,0 +1,43 @@
+package com.civic.issue.controller;
+
+import com.civic.issue.dto.response.ApiResponse;
+import com.civic.issue.scheduler.PriorityRecomputeScheduler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/priority-recompute")
+@RequiredArgsConstructor
+public class PriorityRecomputeController {
+
+    private final PriorityRecomputeScheduler recomputeScheduler;
+
+    /**
+     * GET /api/admin/priority-recompute
+     * Duration, row counts and rows/sec of the last recompute pass.
+     * ADMIN only.
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getLastRun() {
+        return ResponseEntity.ok(ApiResponse.success(recomputeScheduler.lastRun()));
+    }
+
+    /**
+     * POST /api/admin/priority-recompute
+     * Runs a pass now instead of waiting for the schedule.
+     * ADMIN only.
+     */
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> recomputeNow() {
+        return ResponseEntity.ok(ApiResponse.success(recomputeScheduler.recompute()));
+    }
+}
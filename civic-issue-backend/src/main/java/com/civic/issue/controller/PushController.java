@@ -0,0 +1,56 @@
+package com.civic.issue.controller;
+
+import com.civic.issue.dto.response.ApiResponse;
+import com.civic.issue.entity.User;
+import com.civic.issue.service.PushEventBus;
+import com.civic.issue.service.UserCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class PushController {
+
+    private final PushEventBus pushEventBus;
+    private final UserCache    userCache;
+
+    /**
+     * GET /api/stream  (text/event-stream)
+     * Pushes "notification", "unread" and "issue-status" events to the
+     * current user. Reconnect with the Last-Event-ID header (or
+     * ?lastEventId=) to receive what was missed; a "resync" event means
+     * the gap could not be replayed and the client should refetch.
+     */
+    @GetMapping(path = "/api/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(name = "lastEventId", required = false)   String lastEventIdParam,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        User user = userCache.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        return pushEventBus.subscribe(user, lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam);
+    }
+
+    /**
+     * GET /api/admin/push
+     * Open streams, events published/replayed and slow clients dropped.
+     * ADMIN only.
+     */
+    @GetMapping("/api/admin/push")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getPushStats() {
+        return ResponseEntity.ok(ApiResponse.success(pushEventBus.stats()));
+    }
+}
@@ -12,9 +12,14 @@ import com.civic.issue.enums.RoleType;
 import com.civic.issue.enums.Zone;
 import com.civic.issue.exception.DuplicateResourceException;
 import com.civic.issue.exception.ResourceNotFoundException;
+import com.civic.issue.exception.UnauthorizedException;
 import com.civic.issue.repository.IssueRepository;
 import com.civic.issue.repository.UserRepository;
+import com.civic.issue.service.IssueRollupService;
+import com.civic.issue.service.IssueService;
+import com.civic.issue.service.UserCache;
 import com.civic.issue.service.ZoneDetector;
+import com.civic.issue.service.ZonePriorityIndex;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -23,6 +28,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -34,6 +40,10 @@ public class RegionalAdminController {
     private final UserRepository  userRepository;
     private final IssueRepository issueRepository;
     private final ZoneDetector    zoneDetector;
+    private final ZonePriorityIndex zonePriorityIndex;
+    private final IssueService    issueService;
+    private final IssueRollupService issueRollupService;
+    private final UserCache       userCache;
     private final PasswordEncoder passwordEncoder;
 
     // ═══════════════════════════════════════════════════════════════════
@@ -134,11 +144,12 @@ public class RegionalAdminController {
      */
     @PutMapping("/api/admin/issues/{id}/assign")
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public ResponseEntity<ApiResponse<IssueResponse>> assignIssue(
             @PathVariable Long id,
             @Valid @RequestBody AssignIssueRequest request) {
 
-        Issue issue = issueRepository.findById(id)
+        Issue issue = issueRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Issue", id));
 
         User admin = userRepository.findById(request.getAdminId())
@@ -150,9 +161,12 @@ public class RegionalAdminController {
                     "Target user is not a regional admin");
         }
 
+        IssueRollupService.Snapshot before = issueRollupService.snapshot(issue);
         issue.setAssignedTo(admin);
         issue.setZone(admin.getZone());
         issueRepository.save(issue);
+        issueRollupService.applyChange(before, issueRollupService.snapshot(issue));
+        zonePriorityIndex.onSaved(issue);
 
         return ResponseEntity.ok(ApiResponse.success(
                 "Issue assigned to " + admin.getName(), toIssueResponse(issue)));
@@ -164,27 +178,54 @@ public class RegionalAdminController {
 
     /**
      * GET /api/regional/issues
-     * Regional admin sees ONLY issues in their zone.
+     * Regional admin sees ONLY issues in their zone, and gets 403 if they
+     * have none.
      */
     @GetMapping("/api/regional/issues")
     @PreAuthorize("hasAnyRole('ADMIN','REGIONAL_ADMIN')")
     public ResponseEntity<ApiResponse<List<IssueResponse>>> getZoneIssues(
             @AuthenticationPrincipal UserDetails userDetails) {
 
-        User currentUser = userRepository.findByEmail(userDetails.getUsername())
+        User currentUser = userCache.findByEmail(userDetails.getUsername())
                 .orElseThrow();
 
-        List<Issue> issues;
-        if (currentUser.getRole() == RoleType.ADMIN) {
-            // ADMIN sees all
-            issues = issueRepository.findAllByOrderByCreatedAtDesc();
-        } else {
-            // REGIONAL_ADMIN sees only their zone
-            issues = issueRepository.findByZoneOrderByCreatedAtDesc(currentUser.getZone());
+        // ADMIN sees all (null zone), REGIONAL_ADMIN sees only their zone
+        Zone zone = null;
+        if (currentUser.getRole() != RoleType.ADMIN) {
+            // A null zone would mean "all zones" to getZoneIssues
+            if (currentUser.getZone() == null) {
+                throw new UnauthorizedException("No zone assigned to this regional admin");
+            }
+            zone = currentUser.getZone();
         }
 
-        return ResponseEntity.ok(ApiResponse.success(
-                issues.stream().map(this::toIssueResponse).toList()));
+        return ResponseEntity.ok(ApiResponse.success(issueService.getZoneIssues(zone)));
+    }
+
+    /**
+     * GET /api/regional/issues/top?k=20
+     * The zone's highest-priority open issues, best first, from the
+     * in-memory per-zone index. ADMIN gets the top K across all zones; a
+     * REGIONAL_ADMIN with no zone gets 403.
+     */
+    @GetMapping("/api/regional/issues/top")
+    @PreAuthorize("hasAnyRole('ADMIN','REGIONAL_ADMIN')")
+    public ResponseEntity<ApiResponse<List<IssueResponse>>> getTopZoneIssues(
+            @RequestParam(defaultValue = "20") int k,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        User currentUser = userCache.findByEmail(userDetails.getUsername())
+                .orElseThrow();
+
+        Zone zone = null;
+        if (currentUser.getRole() != RoleType.ADMIN) {
+            // A null zone would mean "all zones" to getTopZoneIssues
+            if (currentUser.getZone() == null) {
+                throw new UnauthorizedException("No zone assigned to this regional admin");
+            }
+            zone = currentUser.getZone();
+        }
+        return ResponseEntity.ok(ApiResponse.success(issueService.getTopZoneIssues(zone, k)));
     }
 
     /**
@@ -196,7 +237,7 @@ public class RegionalAdminController {
     public ResponseEntity<ApiResponse<Object>> getZoneStats(
             @AuthenticationPrincipal UserDetails userDetails) {
 
-        User currentUser = userRepository.findByEmail(userDetails.getUsername())
+        User currentUser = userCache.findByEmail(userDetails.getUsername())
                 .orElseThrow();
 
         Zone zone = currentUser.getZone();
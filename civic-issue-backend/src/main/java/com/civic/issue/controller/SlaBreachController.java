@@ -0,0 +1,89 @@
+package com.civic.issue.controller;
+
+import com.civic.issue.dto.response.ApiResponse;
+import com.civic.issue.dto.response.PageResponse;
+import com.civic.issue.dto.response.SlaBreachResponse;
+import com.civic.issue.entity.SlaBreachSnapshot;
+import com.civic.issue.entity.User;
+import com.civic.issue.enums.RoleType;
+import com.civic.issue.enums.Zone;
+import com.civic.issue.exception.UnauthorizedException;
+import com.civic.issue.repository.SlaBreachSnapshotRepository;
+import com.civic.issue.service.UserCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class SlaBreachController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final SlaBreachSnapshotRepository snapshotRepository;
+    private final UserCache                   userCache;
+
+    /**
+     * GET /api/sla-breaches?date=2026-10-16&zone=NORTH&page=0&size=50
+     * Issues that were past SLA in that day's scheduler run (latest run if
+     * no date), longest-waiting first. Linked from the SLA digest
+     * notification. Ask for page + 1 while hasMore is true. REGIONAL_ADMIN only
+     * sees their own zone, and gets 403 if they have none.
+     */
+    @GetMapping("/api/sla-breaches")
+    @PreAuthorize("hasAnyRole('ADMIN','REGIONAL_ADMIN')")
+    public ResponseEntity<ApiResponse<PageResponse<SlaBreachResponse>>> getBreaches(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Zone zone,
+            @RequestParam(defaultValue = "0")  int page,
+            @RequestParam(defaultValue = "50") int size,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        User currentUser = userCache.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        if (currentUser.getRole() != RoleType.ADMIN) {
+            // A null zone would mean "all zones" to findPage
+            if (currentUser.getZone() == null) {
+                throw new UnauthorizedException("No zone assigned to this regional admin");
+            }
+            zone = currentUser.getZone();
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        LocalDate runDate = date != null ? date : snapshotRepository.findLatestRunDate();
+        if (runDate == null) {
+            return ResponseEntity.ok(ApiResponse.success(new PageResponse<>(List.of(), pageNumber, pageSize, false)));
+        }
+
+        List<SlaBreachSnapshot> rows = snapshotRepository.findPage(
+                runDate, zone, PageRequest.of(pageNumber, pageSize));
+        // A full page may be followed by an empty one; cheaper than a count
+        boolean hasMore = rows.size() == pageSize;
+        return ResponseEntity.ok(ApiResponse.success(new PageResponse<>(
+                rows.stream().map(this::mapToResponse).toList(), pageNumber, pageSize, hasMore)));
+    }
+
+    private SlaBreachResponse mapToResponse(SlaBreachSnapshot s) {
+        return SlaBreachResponse.builder()
+                .issueId(s.getIssueId())
+                .title(s.getTitle())
+                .zone(s.getZone())
+                .assignedToId(s.getAssignedToId())
+                .issueCreatedAt(s.getIssueCreatedAt())
+                .daysPending(s.getDaysPending())
+                .runDate(s.getRunDate())
+                .build();
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -52,4 +53,22 @@ public class UpvoteController {
         boolean hasUpvoted = upvoteService.hasUpvoted(id, userDetails.getUsername());
         return ResponseEntity.ok(ApiResponse.success(Map.of("hasUpvoted", hasUpvoted)));
     }
+
+    /**
+     * POST /api/issues/upvotes/status
+     * Upvote state of several issues for the current user in one call,
+     * e.g. every card on a feed page.
+     *
+     * Body: { "issueIds": [12, 15, 31] }
+     * Returns: { "12": true, "15": false, "31": false }
+     */
+    @PostMapping("/upvotes/status")
+    public ResponseEntity<ApiResponse<Map<Long, Boolean>>> getUpvoteStatuses(
+            @RequestBody Map<String, List<Long>> body,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        List<Long> issueIds = body != null && body.get("issueIds") != null ? body.get("issueIds") : List.of();
+        return ResponseEntity.ok(ApiResponse.success(
+                upvoteService.upvoteStatus(issueIds, userDetails.getUsername())));
+    }
 }
@@ -5,6 +5,7 @@ import com.civic.issue.dto.response.ApiResponse;
 import com.civic.issue.dto.response.UserResponse;
 import com.civic.issue.entity.User;
 import com.civic.issue.repository.UserRepository;
+import com.civic.issue.service.UserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -18,11 +19,12 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserRepository userRepository;
+    private final UserCache      userCache;
 
     @GetMapping("/me")
     public ResponseEntity<ApiResponse<UserResponse>> getMyDetails(
             @AuthenticationPrincipal UserDetails userDetails) {
-        User user = userRepository.findByEmail(userDetails.getUsername())
+        User user = userCache.findByEmail(userDetails.getUsername())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
         return ResponseEntity.ok(ApiResponse.success(mapToResponse(user)));
     }
@@ -31,9 +33,10 @@ public class UserController {
     public ResponseEntity<ApiResponse<UserResponse>> updatePhone(
             @RequestBody UpdatePhoneRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
+        // Written back, so load the row itself rather than the cache's copy
         User user = userRepository.findByEmail(userDetails.getUsername())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        
+
         user.setPhone(request.getPhone());
         User saved = userRepository.save(user);
         return ResponseEntity.ok(ApiResponse.success("Phone updated successfully", mapToResponse(saved)));
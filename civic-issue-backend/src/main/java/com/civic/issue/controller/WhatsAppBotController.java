@@ -1,12 +1,15 @@
 package com.civic.issue.controller;
 
+import com.civic.issue.service.BotMessageDispatcher;
 import com.civic.issue.service.SmsNotificationService;
+import com.civic.issue.service.WebhookDeduplicator;
 import com.civic.issue.service.WhatsAppBotService;
 import com.civic.issue.repository.IssueRepository;
 import com.civic.issue.repository.UserRepository;
 import com.civic.issue.service.IssueService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -22,24 +25,31 @@ public class WhatsAppBotController {
     private final IssueRepository         issueRepository;
     private final UserRepository          userRepository;
     private final IssueService            issueService;
+    private final BotMessageDispatcher    dispatcher;
+    private final WebhookDeduplicator     deduplicator;
 
     public WhatsAppBotController(
             WhatsAppBotService      whatsAppBotService,
             SmsNotificationService  smsNotificationService,
             IssueRepository         issueRepository,
             UserRepository          userRepository,
-            IssueService            issueService) {
+            IssueService            issueService,
+            BotMessageDispatcher    dispatcher,
+            WebhookDeduplicator     deduplicator) {
         this.whatsAppBotService = whatsAppBotService;
         this.smsNotificationService = smsNotificationService;
         this.issueRepository = issueRepository;
         this.userRepository = userRepository;
         this.issueService = issueService;
+        this.dispatcher = dispatcher;
+        this.deduplicator = deduplicator;
     }
 
     @PostMapping(value = "/whatsapp",
                  consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
     public ResponseEntity<String> handleWhatsApp(
             @RequestParam("From")                          String from,
+            @RequestParam(value = "MessageSid", required = false) String messageSid,
             @RequestParam(value = "Body",   defaultValue = "") String body,
             @RequestParam(value = "MediaUrl0",  required = false) String mediaUrl,
             @RequestParam(value = "Latitude",   required = false) Double latitude,
@@ -50,32 +60,53 @@ public class WhatsAppBotController {
 
         String phone = from.replace("whatsapp:", "");
 
-        // Run the complex logic in background
-        new Thread(() -> {
-            try {
-                whatsAppBotService.handleIncoming(phone, body, mediaUrl, latitude, longitude);
-            } catch (Exception e) {
-                log.error("CRITICAL BOT ERROR for {}: {}", phone, e.getMessage(), e);
-            }
-        }).start();
+        // Twilio redelivers on slow responses; only the first delivery runs
+        if (!deduplicator.firstDelivery(messageSid)) {
+            log.info("Duplicate WhatsApp delivery {} from {} dropped", messageSid, phone);
+            return emptyTwiml();
+        }
+
+        // Run the complex logic in background, in order per phone
+        boolean accepted = dispatcher.submit(phone,
+                () -> whatsAppBotService.handleIncoming(phone, body, mediaUrl, latitude, longitude));
+        if (!accepted) {
+            // Saturated — let Twilio redeliver later rather than queue without bound
+            log.warn("Bot queue full, deferring message from {}", phone);
+            deduplicator.release(messageSid);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .contentType(MediaType.APPLICATION_XML)
+                    .body("<?xml version=\"1.0\" encoding=\"UTF-8\"?><Response/>");
+        }
 
         // Return a basic TwiML response to tell Twilio we acknowledged it
         // This prevents "Twilio 12400" timeout errors
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_XML)
-                .body("<?xml version=\"1.0\" encoding=\"UTF-8\"?><Response/>");
+        return emptyTwiml();
     }
 
     @PostMapping(value = "/sms",
                  consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
     public ResponseEntity<String> handleSms(
             @RequestParam("From") String from,
+            @RequestParam(value = "MessageSid", required = false) String messageSid,
             @RequestParam(value = "Body", defaultValue = "") String body) {
 
         log.info("📩 SMS INCOMING -> From: {} | Body: {}", from, body);
 
-        String reply = smsNotificationService.handleSmsReply(
-                from, body, issueRepository, userRepository, issueService);
+        // A redelivered YES/NO must not confirm or reopen twice
+        if (!deduplicator.firstDelivery(messageSid)) {
+            log.info("Duplicate SMS delivery {} from {} dropped", messageSid, from);
+            return emptyTwiml();
+        }
+
+        String reply;
+        try {
+            reply = smsNotificationService.handleSmsReply(
+                    from, body, issueRepository, userRepository, issueService);
+        } catch (RuntimeException ex) {
+            // Twilio retries the 500; forget the sid so the retry is processed
+            deduplicator.release(messageSid);
+            throw ex;
+        }
 
         String twiml = String.format(
             "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
@@ -88,6 +119,12 @@ public class WhatsAppBotController {
                 .body(twiml);
     }
 
+    private static ResponseEntity<String> emptyTwiml() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_XML)
+                .body("<?xml version=\"1.0\" encoding=\"UTF-8\"?><Response/>");
+    }
+
     private String escapeXml(String text) {
         if (text == null) return "";
         return text.replace("&", "&amp;")
@@ -0,0 +1,98 @@
+package com.civic.issue.dto;
+
+import com.civic.issue.dto.response.IssueResponse;
+import com.civic.issue.enums.IssueStatus;
+import com.civic.issue.enums.Zone;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat read model for issue listings.
+ * Filled by a JPQL constructor expression in IssueRepository that joins the
+ * creator and assignee once and counts comments in SQL, so a list endpoint
+ * costs a single SELECT instead of one per lazy association.
+ */
+public class IssueListRow {
+
+    private final Long          id;
+    private final String        title;
+    private final String        description;
+    private final String        category;
+    private final IssueStatus   status;
+    private final String        imageUrl;
+    private final String        resolvedImageUrl;
+    private final String        reopenNote;
+    private final Double        latitude;
+    private final Double        longitude;
+    private final Zone          zone;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime resolvedAt;
+    private final LocalDateTime closedAt;
+    private final Integer       upvoteCount;
+    private final Double        priorityScore;
+    private final Long          createdById;
+    private final String        createdByName;
+    private final String        createdByEmail;
+    private final Long          assignedToId;
+    private final String        assignedToName;
+    private final String        assignedToEmail;
+    private final Long          commentCount;
+
+    public IssueListRow(Long id, String title, String description, String category, IssueStatus status,
+                        String imageUrl, String resolvedImageUrl, String reopenNote,
+                        Double latitude, Double longitude, Zone zone,
+                        LocalDateTime createdAt, LocalDateTime resolvedAt, LocalDateTime closedAt,
+                        Integer upvoteCount, Double priorityScore,
+                        Long createdById, String createdByName, String createdByEmail,
+                        Long assignedToId, String assignedToName, String assignedToEmail,
+                        Long commentCount) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.category = category;
+        this.status = status;
+        this.imageUrl = imageUrl;
+        this.resolvedImageUrl = resolvedImageUrl;
+        this.reopenNote = reopenNote;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.zone = zone;
+        this.createdAt = createdAt;
+        this.resolvedAt = resolvedAt;
+        this.closedAt = closedAt;
+        this.upvoteCount = upvoteCount;
+        this.priorityScore = priorityScore;
+        this.createdById = createdById;
+        this.createdByName = createdByName;
+        this.createdByEmail = createdByEmail;
+        this.assignedToId = assignedToId;
+        this.assignedToName = assignedToName;
+        this.assignedToEmail = assignedToEmail;
+        this.commentCount = commentCount;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Double getPriorityScore() { return priorityScore; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public IssueStatus getStatus() { return status; }
+
+    public IssueResponse toResponse() {
+        return IssueResponse.builder()
+                .id(id).title(title).description(description)
+                .category(category).status(status).imageUrl(imageUrl)
+                .resolvedImageUrl(resolvedImageUrl).reopenNote(reopenNote)
+                .latitude(latitude).longitude(longitude).zone(zone)
+                .createdAt(createdAt)
+                .resolvedAt(resolvedAt)
+                .closedAt(closedAt)
+                .upvoteCount(upvoteCount != null ? upvoteCount : 0)
+                .priorityScore(priorityScore != null ? priorityScore : 0.0)
+                .createdBy(createdById == null ? null :
+                        new IssueResponse.UserSummary(createdById, createdByName, createdByEmail))
+                .assignedTo(assignedToId == null ? null :
+                        new IssueResponse.UserSummary(assignedToId, assignedToName, assignedToEmail))
+                .commentCount(commentCount != null ? commentCount.intValue() : 0)
+                .build();
+    }
+}
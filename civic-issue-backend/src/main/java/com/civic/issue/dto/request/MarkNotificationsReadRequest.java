@@ -0,0 +1,15 @@
+package com.civic.issue.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MarkNotificationsReadRequest {
+
+    @NotEmpty(message = "ids are required")
+    @Size(max = 500, message = "At most 500 ids per request")
+    private List<Long> ids;
+}
@@ -24,6 +24,7 @@ public class IssueResponse {
     private UserSummary   createdBy;
     private UserSummary   assignedTo;
     private List<CommentResponse> comments;
+    private Integer commentCount;     // list views carry the count instead of comment bodies
     private Integer upvoteCount;
     private Double  priorityScore;
     private Boolean hasUpvoted;
@@ -48,6 +49,7 @@ public class IssueResponse {
     public UserSummary getCreatedBy() { return createdBy; }
     public UserSummary getAssignedTo() { return assignedTo; }
     public List<CommentResponse> getComments() { return comments; }
+    public Integer getCommentCount() { return commentCount; }
     public Integer getUpvoteCount() { return upvoteCount; }
     public Double getPriorityScore() { return priorityScore; }
     public Boolean getHasUpvoted() { return hasUpvoted; }
@@ -70,6 +72,7 @@ public class IssueResponse {
     public void setCreatedBy(UserSummary createdBy) { this.createdBy = createdBy; }
     public void setAssignedTo(UserSummary assignedTo) { this.assignedTo = assignedTo; }
     public void setComments(List<CommentResponse> comments) { this.comments = comments; }
+    public void setCommentCount(Integer commentCount) { this.commentCount = commentCount; }
     public void setUpvoteCount(Integer upvoteCount) { this.upvoteCount = upvoteCount; }
     public void setPriorityScore(Double priorityScore) { this.priorityScore = priorityScore; }
     public void setHasUpvoted(Boolean hasUpvoted) { this.hasUpvoted = hasUpvoted; }
@@ -98,6 +101,7 @@ public class IssueResponse {
         public IssueResponseBuilder createdBy(UserSummary user) { res.createdBy = user; return this; }
         public IssueResponseBuilder assignedTo(UserSummary user) { res.assignedTo = user; return this; }
         public IssueResponseBuilder comments(List<CommentResponse> comments) { res.comments = comments; return this; }
+        public IssueResponseBuilder commentCount(Integer count) { res.commentCount = count; return this; }
         public IssueResponseBuilder upvoteCount(Integer count) { res.upvoteCount = count; return this; }
         public IssueResponseBuilder priorityScore(Double score) { res.priorityScore = score; return this; }
         public IssueResponseBuilder hasUpvoted(Boolean has) { res.hasUpvoted = has; return this; }
@@ -0,0 +1,34 @@
+package com.civic.issue.dto.response;
+
+import java.util.List;
+
+/**
+ * One page of an offset-paginated listing.
+ * Request page + 1 for the next one while hasMore is true.
+ */
+public class PageResponse<T> {
+
+    private List<T> items;
+    private int     page;
+    private int     size;
+    private boolean hasMore;
+
+    public PageResponse() {}
+
+    public PageResponse(List<T> items, int page, int size, boolean hasMore) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.hasMore = hasMore;
+    }
+
+    // Getters & Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
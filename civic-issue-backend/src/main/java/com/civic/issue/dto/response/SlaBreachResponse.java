@@ -0,0 +1,24 @@
+package com.civic.issue.dto.response;
+
+import com.civic.issue.enums.Zone;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlaBreachResponse {
+    private Long          issueId;
+    private String        title;
+    private Zone          zone;
+    private Long          assignedToId;
+    private LocalDateTime issueCreatedAt;
+    private int           daysPending;
+    private LocalDate     runDate;
+}
@@ -2,15 +2,25 @@ package com.civic.issue.entity;
 
 import com.civic.issue.enums.IssueStatus;
 import com.civic.issue.enums.Zone;
+import com.civic.issue.util.GeoGrid;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "issues")
+@Table(name = "issues", indexes = {
+        @Index(name = "idx_issues_feed", columnList = "priority_score DESC, created_at DESC, id DESC"),
+        @Index(name = "idx_issues_geo_cell", columnList = "category, geo_cell, status"),
+        @Index(name = "idx_issues_zone_priority", columnList = "zone, priority_score DESC, created_at DESC, id DESC"),
+        @Index(name = "idx_issues_zone_status_created", columnList = "zone, status, created_at")
+})
+// Saves write only the columns they changed, so an entity save never
+// writes back an upvote_count that UpvoteService has moved since the load
+@DynamicUpdate
 public class Issue {
 
     @Id
@@ -38,13 +48,22 @@ public class Issue {
     @Column(name = "reopen_note", columnDefinition = "TEXT")
     private String reopenNote;
 
+    // Times the reporter has reopened it; keys status SMS per resolution cycle
+    @Column(name = "reopen_count")
+    private Integer reopenCount = 0;
+
     private Double latitude;
     private Double longitude;
 
+    // GeoGrid cell of (latitude, longitude); kept in sync on every save
+    @Column(name = "geo_cell")
+    private Long geoCell;
+
     @Column(name = "upvote_count")
     private Integer upvoteCount = 0;
 
-    @Column(name = "priority_score")
+    // NOT NULL: the feed's keyset cursor compares on it
+    @Column(name = "priority_score", nullable = false)
     private Double priorityScore = 0.0;
 
     @Column(name = "resolved_at")
@@ -94,6 +113,10 @@ public class Issue {
         this.zone = zone;
     }
 
+    @PrePersist
+    @PreUpdate
+    void syncGeoCell() { geoCell = GeoGrid.cellId(latitude, longitude); }
+
     // Getters & Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -111,10 +134,13 @@ public class Issue {
     public void setResolvedImageUrl(String resolvedImageUrl) { this.resolvedImageUrl = resolvedImageUrl; }
     public String getReopenNote() { return reopenNote; }
     public void setReopenNote(String reopenNote) { this.reopenNote = reopenNote; }
+    public Integer getReopenCount() { return reopenCount; }
+    public void setReopenCount(Integer reopenCount) { this.reopenCount = reopenCount; }
     public Double getLatitude() { return latitude; }
     public void setLatitude(Double latitude) { this.latitude = latitude; }
     public Double getLongitude() { return longitude; }
     public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public Long getGeoCell() { return geoCell; }
     public Integer getUpvoteCount() { return upvoteCount; }
     public void setUpvoteCount(Integer upvoteCount) { this.upvoteCount = upvoteCount; }
     public Double getPriorityScore() { return priorityScore; }
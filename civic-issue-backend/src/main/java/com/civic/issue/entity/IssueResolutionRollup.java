@@ -0,0 +1,39 @@
+package com.civic.issue.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Resolved/closed issue counters per resolution-day × zone × category.
+ * The resolution day is closedAt, else resolvedAt — the same timestamp the
+ * dashboard "resolved" trend lines are plotted on.
+ */
+@Entity
+@Table(name = "issue_resolution_rollups",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"bucket_date", "zone", "category"}))
+public class IssueResolutionRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(nullable = false, length = 20)
+    private String zone;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(name = "resolved_count", nullable = false)
+    private long resolvedCount;
+
+    public IssueResolutionRollup() {}
+
+    public Long getId() { return id; }
+    public LocalDate getBucketDate() { return bucketDate; }
+    public String getZone() { return zone; }
+    public String getCategory() { return category; }
+    public long getResolvedCount() { return resolvedCount; }
+}
@@ -0,0 +1,60 @@
+package com.civic.issue.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated issue counters per created-day × zone × category × status.
+ * Maintained by IssueRollupService in the same transaction as every issue
+ * write; rebuilt from the issues table on demand.
+ *
+ * "Timed" columns cover issues that already have an end timestamp
+ * (resolvedAt, else closedAt), which is what resolution time and the
+ * 3-day SLA are measured against.
+ */
+@Entity
+@Table(name = "issue_rollups",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"bucket_date", "zone", "category", "status"}))
+public class IssueRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    // '' for issues without a zone/category so the unique key stays usable
+    @Column(nullable = false, length = 20)
+    private String zone;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "issue_count", nullable = false)
+    private long issueCount;
+
+    @Column(name = "timed_count", nullable = false)
+    private long timedCount;
+
+    @Column(name = "timed_days_sum", nullable = false)
+    private long timedDaysSum;
+
+    @Column(name = "timed_breached_count", nullable = false)
+    private long timedBreachedCount;
+
+    public IssueRollup() {}
+
+    public Long getId() { return id; }
+    public LocalDate getBucketDate() { return bucketDate; }
+    public String getZone() { return zone; }
+    public String getCategory() { return category; }
+    public String getStatus() { return status; }
+    public long getIssueCount() { return issueCount; }
+    public long getTimedCount() { return timedCount; }
+    public long getTimedDaysSum() { return timedDaysSum; }
+    public long getTimedBreachedCount() { return timedBreachedCount; }
+}
@@ -6,7 +6,9 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "issue_upvotes",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"issue_id","user_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"issue_id","user_id"}),
+       // Covers the per-user upvote-status lookups
+       indexes = @Index(name = "idx_issue_upvotes_user", columnList = "user_id, issue_id"))
 public class IssueUpvote {
 
     @Id
@@ -7,7 +7,8 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes =
+        @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at DESC, id DESC"))
 @Getter
 @Setter
 @NoArgsConstructor
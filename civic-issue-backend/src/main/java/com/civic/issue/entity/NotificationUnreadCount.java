@@ -0,0 +1,29 @@
+package com.civic.issue.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Number of unread notifications per user, kept in step with the
+ * notifications table so the header badge is a primary-key lookup.
+ * Incremented in the transaction that inserts a notification and
+ * decremented by the number of rows a mark-read UPDATE actually flipped.
+ */
+@Entity
+@Table(name = "notification_unread_counts")
+public class NotificationUnreadCount {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private int unread;
+
+    public NotificationUnreadCount() {}
+
+    // Getters & Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public int getUnread() { return unread; }
+    public void setUnread(int unread) { this.unread = unread; }
+}
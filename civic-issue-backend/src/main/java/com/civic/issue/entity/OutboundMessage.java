@@ -0,0 +1,76 @@
+package com.civic.issue.entity;
+
+import com.civic.issue.enums.MessageChannel;
+import com.civic.issue.enums.NotificationEvent;
+import com.civic.issue.enums.OutboundStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A WhatsApp/SMS message waiting to be handed to Twilio.
+ * Written by MessageOutbox in the caller's transaction and delivered by
+ * OutboxWorker, which retries with backoff and parks hopeless rows as DEAD.
+ * Issue notifications carry an event key; its unique index makes queueing
+ * the same event twice a no-op.
+ */
+@Entity
+@Table(name = "outbound_messages",
+       indexes = @Index(name = "idx_outbound_messages_due", columnList = "channel, status, next_attempt_at"),
+       uniqueConstraints = @UniqueConstraint(name = "uk_outbound_messages_event", columnNames = "event_key"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboundMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private MessageChannel channel;
+
+    @Column(name = "to_phone", nullable = false, length = 30)
+    private String toPhone;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    // Null for conversational bot replies
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", length = 30)
+    private NotificationEvent eventType;
+
+    // issue:<id>:<event>:<reopen count>
+    @Column(name = "event_key", length = 100)
+    private String eventKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    @Builder.Default
+    private OutboundStatus status = OutboundStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    // When PENDING: earliest next try. When SENDING: end of the worker's lease.
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "provider_sid", length = 64)
+    private String providerSid;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
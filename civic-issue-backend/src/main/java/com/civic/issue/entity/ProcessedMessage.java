@@ -0,0 +1,30 @@
+package com.civic.issue.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Twilio MessageSid of a webhook delivery that was already accepted.
+ * The primary key makes a redelivered sid a no-op insert; rows older than
+ * the retention window are purged by WebhookDeduplicator.
+ */
+@Entity
+@Table(name = "processed_messages",
+       indexes = @Index(name = "idx_processed_messages_received", columnList = "received_at"))
+public class ProcessedMessage {
+
+    @Id
+    @Column(name = "message_sid", length = 64)
+    private String messageSid;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    public ProcessedMessage() {}
+
+    // Getters & Setters
+    public String getMessageSid() { return messageSid; }
+    public void setMessageSid(String messageSid) { this.messageSid = messageSid; }
+    public LocalDateTime getReceivedAt() { return receivedAt; }
+    public void setReceivedAt(LocalDateTime receivedAt) { this.receivedAt = receivedAt; }
+}
@@ -0,0 +1,55 @@
+package com.civic.issue.entity;
+
+import com.civic.issue.enums.Zone;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One issue that was past its SLA when SlaAlertScheduler ran on runDate.
+ * Backs the paginated breach listing linked from the digest notification,
+ * whose per-recipient counts are grouped from recipientId. Each zone's rows
+ * are written once per day, in the transaction that marks the zone done.
+ */
+@Entity
+@Table(name = "sla_breach_snapshots",
+       indexes = @Index(name = "idx_sla_breach_run_zone", columnList = "run_date, zone, days_pending"),
+       uniqueConstraints = @UniqueConstraint(name = "uk_sla_breach_run_issue", columnNames = {"run_date", "issue_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlaBreachSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Column(name = "issue_id", nullable = false)
+    private Long issueId;
+
+    private String title;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Zone zone;
+
+    @Column(name = "assigned_to_id")
+    private Long assignedToId;
+
+    // Assignee, else the zone's regional admin; null if the zone has neither
+    @Column(name = "recipient_id")
+    private Long recipientId;
+
+    @Column(name = "issue_created_at")
+    private LocalDateTime issueCreatedAt;
+
+    @Column(name = "days_pending", nullable = false)
+    private int daysPending;
+}
@@ -2,10 +2,12 @@ package com.civic.issue.entity;
 
 import com.civic.issue.enums.RoleType;
 import com.civic.issue.enums.Zone;
+import com.civic.issue.service.UserChangeListener;
 import jakarta.persistence.*;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserChangeListener.class)
 public class User {
 
     @Id
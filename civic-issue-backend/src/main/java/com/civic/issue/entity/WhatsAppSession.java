@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "whatsapp_sessions")
+@Table(name = "whatsapp_sessions",
+       // WhatsAppSessionStore purges idle rows by updated_at
+       indexes = @Index(name = "idx_whatsapp_sessions_updated", columnList = "updated_at"))
 public class WhatsAppSession {
 
     @Id
@@ -31,6 +33,9 @@ public class WhatsAppSession {
     private String tempDescription;
 
     private LocalDateTime createdAt;
+
+    // Microseconds, so WhatsAppSessionStore can tell two writes in one second apart
+    @Column(columnDefinition = "DATETIME(6)")
     private LocalDateTime updatedAt;
 
     public WhatsAppSession() {}
@@ -64,6 +69,10 @@ public class WhatsAppSession {
     public void setTempTitle(String title) { this.tempTitle = title; }
     public String getTempDescription() { return tempDescription; }
     public void setTempDescription(String desc) { this.tempDescription = desc; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
     // Manual Builder
     public static WhatsAppSessionBuilder builder() {
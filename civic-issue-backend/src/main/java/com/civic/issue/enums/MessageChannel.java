@@ -0,0 +1,6 @@
+package com.civic.issue.enums;
+
+public enum MessageChannel {
+    WHATSAPP,   // sent from twilio.whatsapp.from
+    SMS         // sent from twilio.sms.from
+}
@@ -0,0 +1,11 @@
+package com.civic.issue.enums;
+
+/** Issue events that send a WhatsApp/SMS; at most one message per issue, event and reopen cycle. */
+public enum NotificationEvent {
+    ISSUE_SUBMITTED,
+    ADMIN_NEW_ISSUE,
+    IN_PROGRESS,
+    RESOLVED,
+    CLOSED,
+    ADMIN_REOPENED
+}
@@ -0,0 +1,8 @@
+package com.civic.issue.enums;
+
+public enum OutboundStatus {
+    PENDING,    // waiting for its next attempt
+    SENDING,    // claimed by a worker; reclaimed if the lease runs out
+    SENT,       // accepted by Twilio
+    DEAD        // out of attempts or permanently rejected
+}
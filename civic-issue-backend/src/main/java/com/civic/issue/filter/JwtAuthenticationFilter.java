@@ -1,6 +1,9 @@
 package com.civic.issue.filter;
 
+import com.civic.issue.security.TokenRevocationList;
+import com.civic.issue.service.UserCache;
 import com.civic.issue.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +11,9 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -17,14 +22,20 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /** Response header carrying a renewed token in stateless mode */
+    public static final String RENEWED_TOKEN_HEADER = "X-Auth-Token";
+
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final UserCache userCache;
+    private final TokenRevocationList revocationList;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -33,18 +44,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = extractJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt)) {
-                String email = jwtUtil.extractEmail(jwt);
-
-                if (StringUtils.hasText(email) && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            if (StringUtils.hasText(jwt) && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Single parse: signature + expiry
+                Claims claims = jwtUtil.parseClaims(jwt);
+                String email = claims.getSubject();
 
-                    if (jwtUtil.validateToken(jwt, userDetails)) {
-                        var authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
+                if (StringUtils.hasText(email)) {
+                    UserDetails userDetails;
+                    if (jwtUtil.isStateless() && claims.get(JwtUtil.CLAIM_ROLE) != null && !revocationList.isStale(claims)
+                            && !isPastHalfLife(claims)) {
+                        // Hot path — no user lookup
+                        userDetails = fromClaims(email, claims);
+                    } else {
+                        // Renewal, legacy or stale token: re-read the user, so a
+                        // demoted or deleted account is never re-signed from old claims
+                        userDetails = userDetailsService.loadUserByUsername(email);
+                        if (jwtUtil.isStateless() && jwtUtil.canRenew(claims)) {
+                            userCache.findByEmail(email).ifPresent(user ->
+                                    response.setHeader(RENEWED_TOKEN_HEADER, jwtUtil.renewToken(user, claims)));
+                        }
                     }
+
+                    var authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             }
         } catch (Exception e) {
@@ -54,6 +78,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private static UserDetails fromClaims(String email, Claims claims) {
+        String role = claims.get(JwtUtil.CLAIM_ROLE, String.class);
+        return new User(email, "", List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+
+    private boolean isPastHalfLife(Claims claims) {
+        long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+        return remainingMs < jwtUtil.getTokenLifetimeMs() / 2;
+    }
+
     private String extractJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
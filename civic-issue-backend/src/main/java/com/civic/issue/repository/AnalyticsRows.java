@@ -0,0 +1,50 @@
+package com.civic.issue.repository;
+
+/**
+ * Interface projections for the aggregate queries on IssueRepository.
+ * Column aliases in the native SQL must match the getter names.
+ * Numeric columns are read as Number because MySQL returns SUM as DECIMAL.
+ */
+public final class AnalyticsRows {
+
+    private AnalyticsRows() {}
+
+    public interface Kpis {
+        Number getTotal();
+        Number getClosed();
+        Number getThisMonth();
+        Number getSlaBreaches();
+        Number getResolvedDays();
+        Number getResolvedCount();
+    }
+
+    public interface ZoneKpis {
+        String getZone();
+        Number getTotal();
+        Number getClosed();
+        Number getSlaBreaches();
+        Number getResolvedDays();
+        Number getResolvedCount();
+    }
+
+    public interface StatusCount {
+        String getStatus();
+        Number getCount();
+    }
+
+    public interface CategoryCount {
+        String getCategory();
+        Number getCount();
+    }
+
+    public interface DayCount {
+        Number getMonth();
+        Number getDay();
+        Number getCount();
+    }
+
+    public interface MonthCount {
+        Number getMonth();
+        Number getCount();
+    }
+}
@@ -0,0 +1,15 @@
+package com.civic.issue.repository;
+
+import com.civic.issue.enums.Zone;
+
+import java.time.LocalDateTime;
+
+/**
+ * Just the columns that place an issue in ZonePriorityIndex.
+ */
+public interface IssueRankRow {
+    Long getId();
+    Zone getZone();
+    Double getPriorityScore();
+    LocalDateTime getCreatedAt();
+}
@@ -1,20 +1,26 @@
 package com.civic.issue.repository;
 
+import com.civic.issue.dto.IssueListRow;
 import com.civic.issue.entity.Issue;
 import com.civic.issue.entity.User;
 import com.civic.issue.enums.IssueStatus;
 import com.civic.issue.enums.Zone;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface IssueRepository extends JpaRepository<Issue, Long> {
+public interface IssueRepository extends JpaRepository<Issue, Long>, IssueRepositoryCustom {
 
     // ── Core queries ──────────────────────────────────────────────────────────
 
@@ -22,6 +28,58 @@ public interface IssueRepository extends JpaRepository<Issue, Long> {
     @Query("SELECT i FROM Issue i ORDER BY i.priorityScore DESC, i.createdAt DESC")
     List<Issue> findAllByOrderByPriorityScoreDesc();
 
+    // ── List projections ──────────────────────────────────────────────────────
+    // One joined SELECT per listing: creator/assignee summaries are read
+    // through the join and comments are only counted, never loaded.
+    String LIST_ROW_SELECT = """
+        SELECT new com.civic.issue.dto.IssueListRow(
+            i.id, i.title, i.description, i.category, i.status,
+            i.imageUrl, i.resolvedImageUrl, i.reopenNote,
+            i.latitude, i.longitude, i.zone,
+            i.createdAt, i.resolvedAt, i.closedAt,
+            i.upvoteCount, i.priorityScore,
+            cb.id, cb.name, cb.email,
+            asg.id, asg.name, asg.email,
+            (SELECT COUNT(c) FROM Comment c WHERE c.issue = i))
+        FROM Issue i
+        JOIN i.createdBy cb
+        LEFT JOIN i.assignedTo asg
+        """;
+
+    @Query(LIST_ROW_SELECT + " ORDER BY i.priorityScore DESC, i.createdAt DESC")
+    List<IssueListRow> findAllListRowsByPriority();
+
+    @Query(LIST_ROW_SELECT + " ORDER BY i.createdAt DESC")
+    List<IssueListRow> findAllListRowsByCreatedAt();
+
+    @Query(LIST_ROW_SELECT + " WHERE cb.id = :userId ORDER BY i.createdAt DESC")
+    List<IssueListRow> findListRowsByCreatedBy(@Param("userId") Long userId);
+
+    @Query(LIST_ROW_SELECT + " WHERE i.zone = :zone ORDER BY i.createdAt DESC")
+    List<IssueListRow> findListRowsByZone(@Param("zone") Zone zone);
+
+    // Unordered; callers restore the order of the id list they passed
+    @Query(LIST_ROW_SELECT + " WHERE i.id IN :ids")
+    List<IssueListRow> findListRowsByIds(@Param("ids") Collection<Long> ids);
+
+    // ── Keyset feed (priorityScore, createdAt, id) ────────────────────────────
+    // Backed by idx_issues_feed; page size comes from the Pageable.
+    @Query(LIST_ROW_SELECT + " ORDER BY i.priorityScore DESC, i.createdAt DESC, i.id DESC")
+    List<IssueListRow> findFeedFirstPage(Pageable pageable);
+
+    @Query(LIST_ROW_SELECT + """
+        WHERE i.priorityScore < :score
+           OR (i.priorityScore = :score AND i.createdAt < :createdAt)
+           OR (i.priorityScore = :score AND i.createdAt = :createdAt AND i.id < :id)
+        ORDER BY i.priorityScore DESC, i.createdAt DESC, i.id DESC
+        """)
+    List<IssueListRow> findFeedAfter(
+            @Param("score")     Double score,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id")        Long id,
+            Pageable pageable
+    );
+
     // Fallback — original ordering for non-admin views
     List<Issue> findAllByOrderByCreatedAtDesc();
 
@@ -29,6 +87,23 @@ public interface IssueRepository extends JpaRepository<Issue, Long> {
 
     List<Issue> findByZoneOrderByCreatedAtDesc(Zone zone);
 
+    // ── Zone top-K (ZonePriorityIndex) ────────────────────────────────────────
+    // Backed by idx_issues_zone_priority; page size is the index capacity.
+    @Query("""
+        SELECT i.id AS id, i.zone AS zone, i.priorityScore AS priorityScore, i.createdAt AS createdAt
+        FROM Issue i
+        WHERE i.zone = :zone AND i.status <> com.civic.issue.enums.IssueStatus.CLOSED
+        ORDER BY i.priorityScore DESC, i.createdAt DESC, i.id DESC
+        """)
+    List<IssueRankRow> findTopOpenByZone(@Param("zone") Zone zone, Pageable pageable);
+
+    // Every write that feeds IssueRollupService.applyChange loads the issue
+    // with a row lock, so two concurrent changes cannot both diff against
+    // the same before-state, and the upvote_count they score from is current
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Issue i WHERE i.id = :id")
+    Optional<Issue> findByIdForUpdate(@Param("id") Long id);
+
     List<Issue> findByAssignedToOrderByCreatedAtDesc(User user);
 
     List<Issue> findByAssignedToIsNull();
@@ -38,26 +113,146 @@ public interface IssueRepository extends JpaRepository<Issue, Long> {
     Optional<Issue> findTopByCreatedByAndStatusOrderByCreatedAtDesc(
             User createdBy, IssueStatus status);
 
+    // ── Upvote counters ───────────────────────────────────────────────────────
+    @Query("""
+        SELECT i.latitude AS latitude, i.longitude AS longitude, i.createdAt AS createdAt,
+               i.status AS status, i.category AS category, i.upvoteCount AS upvoteCount,
+               i.zone AS zone
+        FROM Issue i WHERE i.id = :id
+        """)
+    Optional<IssueScoreInputs> findScoreInputs(@Param("id") Long id);
+
+    // Locks the issue row for the rest of the transaction, so toggles on one
+    // issue run one at a time and see the count the previous one committed.
+    @Query(nativeQuery = true, value = """
+        SELECT COALESCE(upvote_count, 0) FROM issues WHERE id = :id FOR UPDATE
+        """)
+    Optional<Integer> lockUpvoteCount(@Param("id") Long id);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        UPDATE issues
+        SET upvote_count = GREATEST(COALESCE(upvote_count, 0) + :delta, 0)
+        WHERE id = :id
+        """)
+    int addToUpvoteCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Issue i SET i.priorityScore = :score WHERE i.id = :id")
+    int setPriorityScore(@Param("id") Long id, @Param("score") double score);
+
     // ── SLA Scheduler ────────────────────────────────────────────────────────
     @Query("SELECT COUNT(i) FROM Issue i WHERE i.assignedTo = :user AND i.status NOT IN ('CLOSED')")
     long countActiveByAssignedTo(@Param("user") User user);
 
+    // ── Analytics aggregates ──────────────────────────────────────────────────
+    // Native MySQL: TIMESTAMPDIFF(DAY, ..) truncates like Duration.toDays().
+    // :zone = ALL_ZONES aggregates over every zone; a null :zone matches
+    // issues without a zone, like the derived findByZone queries do.
+    String ALL_ZONES      = "ALL";
+    String ZONE_FILTER    = " (:zone = '" + ALL_ZONES + "' OR zone <=> :zone) ";
+    String COMPLETED_AT   = " COALESCE(resolved_at, closed_at, :now) ";
+    String SLA_BREACH_SUM = " SUM(CASE WHEN created_at IS NOT NULL"
+            + " AND TIMESTAMPDIFF(DAY, created_at," + COMPLETED_AT + ") >= 3 THEN 1 ELSE 0 END) ";
+    // Sum + count rather than AVG so the mean is divided exactly in Java
+    String RESOLVED_CASE  = " CASE WHEN status IN ('CLOSED','RESOLVED') AND created_at IS NOT NULL"
+            + " THEN TIMESTAMPDIFF(DAY, created_at," + COMPLETED_AT + ") END ";
+    String RESOLUTION_SUMS = " SUM(" + RESOLVED_CASE + ") AS resolvedDays,"
+            + " COUNT(" + RESOLVED_CASE + ") AS resolvedCount ";
+
+    @Query(nativeQuery = true, value = "SELECT COUNT(*) AS total,"
+            + " SUM(CASE WHEN status = 'CLOSED' THEN 1 ELSE 0 END) AS closed,"
+            + " SUM(CASE WHEN created_at > :monthStart THEN 1 ELSE 0 END) AS thisMonth,"
+            + SLA_BREACH_SUM + "AS slaBreaches,"
+            + RESOLUTION_SUMS
+            + " FROM issues WHERE" + ZONE_FILTER)
+    AnalyticsRows.Kpis aggregateKpis(
+            @Param("zone")       String zone,
+            @Param("now")        LocalDateTime now,
+            @Param("monthStart") LocalDateTime monthStart);
+
+    @Query(nativeQuery = true, value = "SELECT zone AS zone, COUNT(*) AS total,"
+            + " SUM(CASE WHEN status = 'CLOSED' THEN 1 ELSE 0 END) AS closed,"
+            + SLA_BREACH_SUM + "AS slaBreaches,"
+            + RESOLUTION_SUMS
+            + " FROM issues WHERE zone IS NOT NULL AND" + ZONE_FILTER
+            + " GROUP BY zone")
+    List<AnalyticsRows.ZoneKpis> aggregateByZone(
+            @Param("zone") String zone,
+            @Param("now")  LocalDateTime now);
+
+    @Query(nativeQuery = true, value = "SELECT status AS status, COUNT(*) AS count"
+            + " FROM issues WHERE" + ZONE_FILTER + " GROUP BY status")
+    List<AnalyticsRows.StatusCount> countByStatus(@Param("zone") String zone);
+
+    @Query(nativeQuery = true, value = "SELECT category AS category, COUNT(*) AS count"
+            + " FROM issues WHERE category IS NOT NULL AND" + ZONE_FILTER
+            + " GROUP BY category ORDER BY count DESC LIMIT :limit")
+    List<AnalyticsRows.CategoryCount> topCategories(
+            @Param("zone")  String zone,
+            @Param("limit") int limit);
+
+    // Trend buckets are keyed by calendar month/day (any year), matching the
+    // "MMM dd" / "MMM" labels the dashboard charts are built on.
+    @Query(nativeQuery = true, value = "SELECT MONTH(created_at) AS month, DAY(created_at) AS day, COUNT(*) AS count"
+            + " FROM issues WHERE created_at IS NOT NULL AND" + ZONE_FILTER
+            + " GROUP BY MONTH(created_at), DAY(created_at)")
+    List<AnalyticsRows.DayCount> countSubmittedByDay(@Param("zone") String zone);
+
+    @Query(nativeQuery = true, value = "SELECT MONTH(COALESCE(closed_at, resolved_at)) AS month,"
+            + " DAY(COALESCE(closed_at, resolved_at)) AS day, COUNT(*) AS count"
+            + " FROM issues WHERE created_at IS NOT NULL AND status IN ('RESOLVED','CLOSED')"
+            + " AND COALESCE(closed_at, resolved_at) IS NOT NULL AND" + ZONE_FILTER
+            + " GROUP BY MONTH(COALESCE(closed_at, resolved_at)), DAY(COALESCE(closed_at, resolved_at))")
+    List<AnalyticsRows.DayCount> countResolvedByDay(@Param("zone") String zone);
+
+    @Query(nativeQuery = true, value = "SELECT MONTH(created_at) AS month, COUNT(*) AS count"
+            + " FROM issues WHERE created_at IS NOT NULL AND" + ZONE_FILTER
+            + " GROUP BY MONTH(created_at)")
+    List<AnalyticsRows.MonthCount> countSubmittedByMonth(@Param("zone") String zone);
+
+    @Query(nativeQuery = true, value = "SELECT MONTH(COALESCE(closed_at, resolved_at)) AS month, COUNT(*) AS count"
+            + " FROM issues WHERE created_at IS NOT NULL AND status IN ('RESOLVED','CLOSED')"
+            + " AND COALESCE(closed_at, resolved_at) IS NOT NULL AND" + ZONE_FILTER
+            + " GROUP BY MONTH(COALESCE(closed_at, resolved_at))")
+    List<AnalyticsRows.MonthCount> countResolvedByMonth(@Param("zone") String zone);
+
     // ── Duplicate detection (fix5) ────────────────────────────────────────────
+    // Served by idx_issues_geo_cell: category equality + IN over the GeoGrid
+    // cells around the point; Haversine refinement happens in the service.
     @Query("""
         SELECT i FROM Issue i
         WHERE i.category = :category
-          AND i.latitude  BETWEEN :latMin AND :latMax
-          AND i.longitude BETWEEN :lngMin AND :lngMax
-          AND i.createdAt >= :since
+          AND i.geoCell IN :cells
           AND i.status <> 'CLOSED'
+          AND i.createdAt >= :since
         ORDER BY i.createdAt DESC
         """)
     List<Issue> findCandidateDuplicates(
-            @Param("category")  String category,
-            @Param("latMin")    Double latMin,
-            @Param("latMax")    Double latMax,
-            @Param("lngMin")    Double lngMin,
-            @Param("lngMax")    Double lngMax,
-            @Param("since")     LocalDateTime since
+            @Param("category") String category,
+            @Param("cells")    Collection<Long> cells,
+            @Param("since")    LocalDateTime since
     );
+
+    // Warm-up set for OpenIssueIndex
+    @Query("""
+        SELECT i FROM Issue i
+        WHERE i.status <> 'CLOSED'
+          AND i.createdAt >= :since
+          AND i.latitude IS NOT NULL AND i.longitude IS NOT NULL
+        """)
+    List<Issue> findOpenWithLocationSince(@Param("since") LocalDateTime since);
+
+    // Rows saved before geo_cell existed; filled in by GeoCellBackfill
+    @Query("""
+        SELECT i FROM Issue i
+        WHERE i.geoCell IS NULL
+          AND i.latitude IS NOT NULL AND i.longitude IS NOT NULL
+        ORDER BY i.id
+        """)
+    List<Issue> findMissingGeoCell(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Issue i SET i.geoCell = :cell WHERE i.id = :id")
+    int setGeoCell(@Param("id") Long id, @Param("cell") Long cell);
 }
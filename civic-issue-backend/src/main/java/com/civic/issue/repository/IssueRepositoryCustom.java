@@ -0,0 +1,18 @@
+package com.civic.issue.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Queries that need SQL built at runtime, mixed into IssueRepository.
+ */
+public interface IssueRepositoryCustom {
+
+    /**
+     * Up to {@code limit} non-CLOSED issue ids, skipping {@code offset},
+     * ordered by priority score computed live as of {@code now}
+     * (PriorityScoreService.sqlExpression), then by newest and id. Does not
+     * read the stored priority_score.
+     */
+    List<Long> findOpenIdsByLivePriority(LocalDateTime now, long offset, int limit);
+}
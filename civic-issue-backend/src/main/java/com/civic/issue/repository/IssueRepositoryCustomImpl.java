@@ -0,0 +1,28 @@
+package com.civic.issue.repository;
+
+import com.civic.issue.service.PriorityScoreService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class IssueRepositoryCustomImpl implements IssueRepositoryCustom {
+
+    private static final String LIVE_PRIORITY_SQL =
+            "SELECT i.id FROM issues i WHERE i.status <> 'CLOSED' ORDER BY "
+            + PriorityScoreService.sqlExpression("i") + " DESC, i.created_at DESC, i.id DESC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findOpenIdsByLivePriority(LocalDateTime now, long offset, int limit) {
+        List<?> ids = entityManager.createNativeQuery(LIVE_PRIORITY_SQL)
+                .setParameter("now", now)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultList();
+        return ids.stream().map(id -> ((Number) id).longValue()).toList();
+    }
+}
@@ -0,0 +1,164 @@
+package com.civic.issue.repository;
+
+import com.civic.issue.entity.IssueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Native MySQL access to issue_rollups and issue_resolution_rollups.
+ * Read queries return the same AnalyticsRows projections as the live
+ * aggregates on IssueRepository so AnalyticsService can use either source.
+ */
+@Repository
+public interface IssueRollupRepository extends JpaRepository<IssueRollup, Long> {
+
+    // ── Incremental maintenance (deltas may be negative) ─────────────────────
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO issue_rollups
+            (bucket_date, zone, category, status, issue_count, timed_count, timed_days_sum, timed_breached_count)
+        VALUES (:day, :zone, :category, :status, :count, :timedCount, :timedDays, :timedBreached)
+        ON DUPLICATE KEY UPDATE
+            issue_count          = issue_count          + VALUES(issue_count),
+            timed_count          = timed_count          + VALUES(timed_count),
+            timed_days_sum       = timed_days_sum       + VALUES(timed_days_sum),
+            timed_breached_count = timed_breached_count + VALUES(timed_breached_count)
+        """)
+    void addToRollup(
+            @Param("day")           LocalDate day,
+            @Param("zone")          String zone,
+            @Param("category")      String category,
+            @Param("status")        String status,
+            @Param("count")         long count,
+            @Param("timedCount")    long timedCount,
+            @Param("timedDays")     long timedDays,
+            @Param("timedBreached") long timedBreached);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO issue_resolution_rollups (bucket_date, zone, category, resolved_count)
+        VALUES (:day, :zone, :category, :count)
+        ON DUPLICATE KEY UPDATE resolved_count = resolved_count + VALUES(resolved_count)
+        """)
+    void addToResolutionRollup(
+            @Param("day")      LocalDate day,
+            @Param("zone")     String zone,
+            @Param("category") String category,
+            @Param("count")    long count);
+
+    // ── Rebuild from issues ───────────────────────────────────────────────────
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM issue_rollups")
+    void clearRollups();
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM issue_resolution_rollups")
+    void clearResolutionRollups();
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO issue_rollups
+            (bucket_date, zone, category, status, issue_count, timed_count, timed_days_sum, timed_breached_count)
+        SELECT DATE(created_at), COALESCE(zone, ''), COALESCE(category, ''), status,
+               COUNT(*),
+               COUNT(COALESCE(resolved_at, closed_at)),
+               COALESCE(SUM(TIMESTAMPDIFF(DAY, created_at, COALESCE(resolved_at, closed_at))), 0),
+               SUM(CASE WHEN TIMESTAMPDIFF(DAY, created_at, COALESCE(resolved_at, closed_at)) >= 3 THEN 1 ELSE 0 END)
+        FROM issues
+        WHERE created_at IS NOT NULL
+        GROUP BY DATE(created_at), COALESCE(zone, ''), COALESCE(category, ''), status
+        """)
+    int rebuildRollups();
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO issue_resolution_rollups (bucket_date, zone, category, resolved_count)
+        SELECT DATE(COALESCE(closed_at, resolved_at)), COALESCE(zone, ''), COALESCE(category, ''), COUNT(*)
+        FROM issues
+        WHERE created_at IS NOT NULL
+          AND status IN ('RESOLVED','CLOSED')
+          AND COALESCE(closed_at, resolved_at) IS NOT NULL
+        GROUP BY DATE(COALESCE(closed_at, resolved_at)), COALESCE(zone, ''), COALESCE(category, '')
+        """)
+    int rebuildResolutionRollups();
+
+    // ── Dashboard reads ───────────────────────────────────────────────────────
+    // Open issues (no end timestamp yet) count as SLA breaches once their
+    // created day is on or before :breachDay.
+    String ZONE_FILTER = " (:zone = '" + IssueRepository.ALL_ZONES + "' OR zone = :zone) ";
+    String RESOLUTION_SUMS =
+              " SUM(CASE WHEN status IN ('CLOSED','RESOLVED') THEN timed_days_sum ELSE 0 END) AS resolvedDays,"
+            + " SUM(CASE WHEN status IN ('CLOSED','RESOLVED') THEN timed_count ELSE 0 END) AS resolvedCount ";
+    String SLA_BREACH_SUM = " SUM(timed_breached_count"
+            + " + CASE WHEN bucket_date <= :breachDay THEN issue_count - timed_count ELSE 0 END) ";
+
+    @Query(nativeQuery = true, value = "SELECT SUM(issue_count) AS total,"
+            + " SUM(CASE WHEN status = 'CLOSED' THEN issue_count ELSE 0 END) AS closed,"
+            + " SUM(CASE WHEN bucket_date >= :monthStart THEN issue_count ELSE 0 END) AS thisMonth,"
+            + SLA_BREACH_SUM + "AS slaBreaches,"
+            + RESOLUTION_SUMS
+            + " FROM issue_rollups WHERE" + ZONE_FILTER)
+    AnalyticsRows.Kpis aggregateKpis(
+            @Param("zone")       String zone,
+            @Param("breachDay")  LocalDate breachDay,
+            @Param("monthStart") LocalDate monthStart);
+
+    @Query(nativeQuery = true, value = "SELECT zone AS zone, SUM(issue_count) AS total,"
+            + " SUM(CASE WHEN status = 'CLOSED' THEN issue_count ELSE 0 END) AS closed,"
+            + SLA_BREACH_SUM + "AS slaBreaches,"
+            + RESOLUTION_SUMS
+            + " FROM issue_rollups WHERE zone <> '' AND" + ZONE_FILTER
+            + " GROUP BY zone")
+    List<AnalyticsRows.ZoneKpis> aggregateByZone(
+            @Param("zone")      String zone,
+            @Param("breachDay") LocalDate breachDay);
+
+    @Query(nativeQuery = true, value = "SELECT status AS status, SUM(issue_count) AS count"
+            + " FROM issue_rollups WHERE" + ZONE_FILTER + " GROUP BY status")
+    List<AnalyticsRows.StatusCount> countByStatus(@Param("zone") String zone);
+
+    @Query(nativeQuery = true, value = "SELECT category AS category, SUM(issue_count) AS count"
+            + " FROM issue_rollups WHERE category <> '' AND" + ZONE_FILTER
+            + " GROUP BY category HAVING SUM(issue_count) > 0 ORDER BY count DESC LIMIT :limit")
+    List<AnalyticsRows.CategoryCount> topCategories(
+            @Param("zone")  String zone,
+            @Param("limit") int limit);
+
+    @Query(nativeQuery = true, value = "SELECT MONTH(bucket_date) AS month, DAY(bucket_date) AS day,"
+            + " SUM(issue_count) AS count"
+            + " FROM issue_rollups WHERE bucket_date >= :since AND" + ZONE_FILTER
+            + " GROUP BY bucket_date")
+    List<AnalyticsRows.DayCount> countSubmittedByDay(
+            @Param("zone")  String zone,
+            @Param("since") LocalDate since);
+
+    @Query(nativeQuery = true, value = "SELECT MONTH(bucket_date) AS month, DAY(bucket_date) AS day,"
+            + " SUM(resolved_count) AS count"
+            + " FROM issue_resolution_rollups WHERE bucket_date >= :since AND" + ZONE_FILTER
+            + " GROUP BY bucket_date")
+    List<AnalyticsRows.DayCount> countResolvedByDay(
+            @Param("zone")  String zone,
+            @Param("since") LocalDate since);
+
+    @Query(nativeQuery = true, value = "SELECT MONTH(bucket_date) AS month, SUM(issue_count) AS count"
+            + " FROM issue_rollups WHERE bucket_date >= :since AND" + ZONE_FILTER
+            + " GROUP BY MONTH(bucket_date)")
+    List<AnalyticsRows.MonthCount> countSubmittedByMonth(
+            @Param("zone")  String zone,
+            @Param("since") LocalDate since);
+
+    @Query(nativeQuery = true, value = "SELECT MONTH(bucket_date) AS month, SUM(resolved_count) AS count"
+            + " FROM issue_resolution_rollups WHERE bucket_date >= :since AND" + ZONE_FILTER
+            + " GROUP BY MONTH(bucket_date)")
+    List<AnalyticsRows.MonthCount> countResolvedByMonth(
+            @Param("zone")  String zone,
+            @Param("since") LocalDate since);
+}
@@ -0,0 +1,21 @@
+package com.civic.issue.repository;
+
+import com.civic.issue.enums.IssueStatus;
+import com.civic.issue.enums.Zone;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns an upvote needs — location for the proximity check, the
+ * priority-score inputs and the zone whose top-K index it re-ranks — read
+ * without loading the Issue entity.
+ */
+public interface IssueScoreInputs {
+    Double getLatitude();
+    Double getLongitude();
+    LocalDateTime getCreatedAt();
+    IssueStatus getStatus();
+    String getCategory();
+    Integer getUpvoteCount();
+    Zone getZone();
+}
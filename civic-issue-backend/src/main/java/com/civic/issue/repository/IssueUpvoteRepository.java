@@ -3,8 +3,15 @@ package com.civic.issue.repository;
 import com.civic.issue.entity.Issue;
 import com.civic.issue.entity.IssueUpvote;
 import com.civic.issue.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +22,30 @@ public interface IssueUpvoteRepository extends JpaRepository<IssueUpvote, Long>
     Optional<IssueUpvote> findByIssueAndUser(Issue issue, User user);
 
     int countByIssue(Issue issue);
+
+    boolean existsByIssueIdAndUserId(Long issueId, Long userId);
+
+    // ── Upvote status lookups ─────────────────────────────────────────────────
+
+    @Query("SELECT u.issue.id FROM IssueUpvote u WHERE u.user.id = :userId")
+    List<Long> findIssueIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT u.issue.id FROM IssueUpvote u WHERE u.user.id = :userId AND u.issue.id IN :issueIds")
+    List<Long> findUpvotedIssueIds(@Param("userId") Long userId, @Param("issueIds") Collection<Long> issueIds);
+
+    // ── Atomic toggle ─────────────────────────────────────────────────────────
+    // The unique key on (issue_id, user_id) absorbs a vote that already
+    // exists; any other error (a missing issue or user) still raises.
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO issue_upvotes (issue_id, user_id, created_at)
+        VALUES (:issueId, :userId, NOW())
+        ON DUPLICATE KEY UPDATE issue_id = issue_id
+        """)
+    int insertIfAbsent(@Param("issueId") Long issueId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM IssueUpvote u WHERE u.issue.id = :issueId AND u.user.id = :userId")
+    int deleteByIssueIdAndUserId(@Param("issueId") Long issueId, @Param("userId") Long userId);
 }
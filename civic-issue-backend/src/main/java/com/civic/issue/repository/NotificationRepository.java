@@ -1,13 +1,56 @@
 package com.civic.issue.repository;
 
 import com.civic.issue.entity.Notification;
-import com.civic.issue.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByUserOrderByCreatedAtDesc(User user);
+
+    // ── Keyset inbox (createdAt, id) ──────────────────────────────────────────
+    // Backed by idx_notifications_user_created; page size comes from the Pageable.
+    @Query("""
+        SELECT n FROM Notification n
+        WHERE n.user.id = :userId AND (:unreadOnly = false OR n.read = false)
+        ORDER BY n.createdAt DESC, n.id DESC
+        """)
+    List<Notification> findInboxFirstPage(
+            @Param("userId")     Long userId,
+            @Param("unreadOnly") boolean unreadOnly,
+            Pageable pageable
+    );
+
+    @Query("""
+        SELECT n FROM Notification n
+        WHERE n.user.id = :userId AND (:unreadOnly = false OR n.read = false)
+          AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id))
+        ORDER BY n.createdAt DESC, n.id DESC
+        """)
+    List<Notification> findInboxAfter(
+            @Param("userId")     Long userId,
+            @Param("unreadOnly") boolean unreadOnly,
+            @Param("createdAt")  LocalDateTime createdAt,
+            @Param("id")         Long id,
+            Pageable pageable
+    );
+
+    // Both return how many rows were flipped, which is what the unread counter drops by
+    @Modifying
+    @Query("""
+        UPDATE Notification n SET n.read = true
+        WHERE n.user.id = :userId AND n.id IN :ids AND n.read = false
+        """)
+    int markRead(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.user.id = :userId AND n.read = false")
+    int markAllRead(@Param("userId") Long userId);
 }
@@ -0,0 +1,37 @@
+package com.civic.issue.repository;
+
+import com.civic.issue.entity.NotificationUnreadCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NotificationUnreadCountRepository extends JpaRepository<NotificationUnreadCount, Long> {
+
+    @Query(nativeQuery = true, value = "SELECT unread FROM notification_unread_counts WHERE user_id = :userId")
+    Optional<Integer> findUnread(@Param("userId") Long userId);
+
+    // [userId, unread]; native so counts bumped by JDBC in this transaction are seen
+    @Query(nativeQuery = true, value = "SELECT user_id, unread FROM notification_unread_counts WHERE user_id IN :userIds")
+    List<Object[]> findUnreadByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO notification_unread_counts (user_id, unread) VALUES (:userId, :n)
+        ON DUPLICATE KEY UPDATE unread = unread + :n
+        """)
+    int increment(@Param("userId") Long userId, @Param("n") int n);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        UPDATE notification_unread_counts SET unread = GREATEST(unread - :n, 0)
+        WHERE user_id = :userId
+        """)
+    int decrement(@Param("userId") Long userId, @Param("n") int n);
+}
@@ -0,0 +1,109 @@
+package com.civic.issue.repository;
+
+import com.civic.issue.entity.OutboundMessage;
+import com.civic.issue.enums.OutboundStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboundMessageRepository extends JpaRepository<OutboundMessage, Long> {
+
+    // ── OutboxWorker claiming ─────────────────────────────────────────────────
+    // Due rows are locked with SKIP LOCKED so concurrent pollers (or
+    // instances) take disjoint batches; SENDING rows whose lease ran out
+    // belong to a worker that died and are due again. Each channel claims
+    // separately so one sender's backlog does not fill the other's batches.
+
+    @Query(nativeQuery = true, value = """
+        SELECT id FROM outbound_messages
+        WHERE channel = :channel AND status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now
+        ORDER BY next_attempt_at, id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """)
+    List<Long> lockDue(@Param("channel") String channel, @Param("now") LocalDateTime now,
+                       @Param("limit") int limit);
+
+    @Modifying
+    @Query("""
+        UPDATE OutboundMessage m
+        SET m.status = com.civic.issue.enums.OutboundStatus.SENDING,
+            m.attempts = m.attempts + 1, m.nextAttemptAt = :leaseUntil
+        WHERE m.id IN :ids
+        """)
+    int claim(@Param("ids") List<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Outcomes only apply while the worker still holds the lease it claimed
+    // the row with; 0 means the lease ran out and the row was reclaimed.
+
+    @Modifying
+    @Query("""
+        UPDATE OutboundMessage m
+        SET m.status = com.civic.issue.enums.OutboundStatus.SENT,
+            m.providerSid = :sid, m.sentAt = :now, m.lastError = NULL
+        WHERE m.id = :id
+          AND m.status = com.civic.issue.enums.OutboundStatus.SENDING AND m.nextAttemptAt = :lease
+        """)
+    int markSent(@Param("id") Long id, @Param("lease") LocalDateTime lease,
+                 @Param("sid") String sid, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+        UPDATE OutboundMessage m
+        SET m.status = com.civic.issue.enums.OutboundStatus.PENDING,
+            m.nextAttemptAt = :nextAttemptAt, m.lastError = :error
+        WHERE m.id = :id
+          AND m.status = com.civic.issue.enums.OutboundStatus.SENDING AND m.nextAttemptAt = :lease
+        """)
+    int markRetry(@Param("id") Long id, @Param("lease") LocalDateTime lease,
+                  @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @Modifying
+    @Query("""
+        UPDATE OutboundMessage m
+        SET m.status = com.civic.issue.enums.OutboundStatus.DEAD, m.lastError = :error
+        WHERE m.id = :id
+          AND m.status = com.civic.issue.enums.OutboundStatus.SENDING AND m.nextAttemptAt = :lease
+        """)
+    int markDead(@Param("id") Long id, @Param("lease") LocalDateTime lease, @Param("error") String error);
+
+    // ── Admin / housekeeping ──────────────────────────────────────────────────
+
+    @Modifying
+    @Query("""
+        UPDATE OutboundMessage m
+        SET m.status = com.civic.issue.enums.OutboundStatus.PENDING,
+            m.attempts = 0, m.nextAttemptAt = :now
+        WHERE m.status = com.civic.issue.enums.OutboundStatus.DEAD
+        """)
+    int requeueDead(@Param("now") LocalDateTime now);
+
+    @Query("SELECT m.status, COUNT(m) FROM OutboundMessage m GROUP BY m.status")
+    List<Object[]> countByStatus();
+
+    @Query("SELECT MIN(m.createdAt) FROM OutboundMessage m WHERE m.status IN :statuses")
+    LocalDateTime oldestCreatedAt(@Param("statuses") List<OutboundStatus> statuses);
+
+    // [eventType, count, oldest createdAt] of undelivered issue notifications
+    @Query("""
+        SELECT m.eventType, COUNT(m), MIN(m.createdAt) FROM OutboundMessage m
+        WHERE m.status IN :statuses AND m.eventType IS NOT NULL
+        GROUP BY m.eventType
+        """)
+    List<Object[]> backlogByEvent(@Param("statuses") List<OutboundStatus> statuses);
+
+    // Event rows are kept: they are the record that the event was sent
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        DELETE FROM outbound_messages
+        WHERE status = 'SENT' AND sent_at < :cutoff AND event_key IS NULL
+        LIMIT :batch
+        """)
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff, @Param("batch") int batch);
+}
@@ -0,0 +1,20 @@
+package com.civic.issue.repository;
+
+import com.civic.issue.entity.ProcessedMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProcessedMessageRepository extends JpaRepository<ProcessedMessage, String> {
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        DELETE FROM processed_messages WHERE received_at < :cutoff LIMIT :batch
+        """)
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff, @Param("batch") int batch);
+}
@@ -0,0 +1,29 @@
+package com.civic.issue.repository;
+
+import com.civic.issue.entity.SlaBreachSnapshot;
+import com.civic.issue.enums.Zone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SlaBreachSnapshotRepository extends JpaRepository<SlaBreachSnapshot, Long> {
+
+    @Query("SELECT MAX(s.runDate) FROM SlaBreachSnapshot s")
+    LocalDate findLatestRunDate();
+
+    // Longest-waiting first; zone null = every zone
+    @Query("""
+        SELECT s FROM SlaBreachSnapshot s
+        WHERE s.runDate = :runDate AND (:zone IS NULL OR s.zone = :zone)
+        ORDER BY s.daysPending DESC, s.issueId
+        """)
+    List<SlaBreachSnapshot> findPage(@Param("runDate") LocalDate runDate,
+                                     @Param("zone") Zone zone,
+                                     Pageable pageable);
+}
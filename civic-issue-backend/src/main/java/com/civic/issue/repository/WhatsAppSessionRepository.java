@@ -2,10 +2,65 @@ package com.civic.issue.repository;
 
 import com.civic.issue.entity.WhatsAppSession;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface WhatsAppSessionRepository extends JpaRepository<WhatsAppSession, Long> {
     Optional<WhatsAppSession> findByPhone(String phone);
+
+    // Revalidates a cached session; empty once the row is gone
+    @Query("SELECT s.updatedAt FROM WhatsAppSession s WHERE s.phone = :phone")
+    Optional<LocalDateTime> findUpdatedAtByPhone(@Param("phone") String phone);
+
+    // ── WhatsAppSessionStore write-through ────────────────────────────────────
+    // Keyed on the unique phone, so a write is one statement whether or not
+    // the row exists yet.
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO whatsapp_sessions
+            (phone, state, temp_image_url, temp_latitude, temp_longitude,
+             temp_category, temp_title, temp_description, created_at, updated_at)
+        VALUES (:phone, :state, :imageUrl, :latitude, :longitude,
+                :category, :title, :description, :now, :now)
+        ON DUPLICATE KEY UPDATE
+            state            = VALUES(state),
+            temp_image_url   = VALUES(temp_image_url),
+            temp_latitude    = VALUES(temp_latitude),
+            temp_longitude   = VALUES(temp_longitude),
+            temp_category    = VALUES(temp_category),
+            temp_title       = VALUES(temp_title),
+            temp_description = VALUES(temp_description),
+            updated_at       = VALUES(updated_at)
+        """)
+    void upsert(
+            @Param("phone")       String phone,
+            @Param("state")       String state,
+            @Param("imageUrl")    String imageUrl,
+            @Param("latitude")    Double latitude,
+            @Param("longitude")   Double longitude,
+            @Param("category")    String category,
+            @Param("title")       String title,
+            @Param("description") String description,
+            @Param("now")         LocalDateTime now
+    );
+
+    @Modifying
+    @Query("DELETE FROM WhatsAppSession s WHERE s.phone = :phone")
+    int deleteByPhone(@Param("phone") String phone);
+
+    // Only if still idle, so a session resumed meanwhile survives
+    @Modifying
+    @Query("DELETE FROM WhatsAppSession s WHERE s.phone = :phone AND s.updatedAt < :cutoff")
+    int deleteIdle(@Param("phone") String phone, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM WhatsAppSession s WHERE s.updatedAt < :cutoff")
+    int deleteAllIdle(@Param("cutoff") LocalDateTime cutoff);
 }
@@ -0,0 +1,171 @@
+package com.civic.issue.scheduler;
+
+import com.civic.issue.enums.IssueStatus;
+import com.civic.issue.service.PriorityScoreService;
+import com.civic.issue.service.ZonePriorityIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomputes priority_score for every non-CLOSED issue so the age component
+ * keeps moving for issues nobody touches.
+ *
+ * Walks the table in id order, one chunk per query, so memory stays flat
+ * however many issues are open. Only rows whose score actually changed are
+ * written, as one JDBC batch per chunk. Each UPDATE is conditional on the
+ * upvote count and status it was computed from, so a concurrent upvote or
+ * status change is never overwritten with a stale score. ZonePriorityIndex
+ * is rebuilt after every completed pass.
+ *
+ * Deliberately not under SchedulerLock: the pass is idempotent, and every
+ * instance has to rebuild its own in-memory ZonePriorityIndex anyway.
+ */
+@Slf4j
+@Component
+public class PriorityRecomputeScheduler {
+
+    private static final double EPSILON = 1e-6;
+
+    private static final String CHUNK_SQL = """
+        SELECT id, upvote_count, created_at, status, category, priority_score
+        FROM issues
+        WHERE id > ? AND status <> 'CLOSED'
+        ORDER BY id
+        LIMIT ?
+        """;
+
+    private static final String UPDATE_SQL = """
+        UPDATE issues SET priority_score = ?
+        WHERE id = ? AND upvote_count = ? AND status = ?
+        """;
+
+    private final JdbcTemplate         jdbcTemplate;
+    private final PriorityScoreService priorityScoreService;
+    private final ZonePriorityIndex    zonePriorityIndex;
+
+    @Value("${app.priority.recompute.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.priority.recompute.chunk-size:1000}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    public PriorityRecomputeScheduler(JdbcTemplate jdbcTemplate,
+                                      PriorityScoreService priorityScoreService,
+                                      ZonePriorityIndex zonePriorityIndex) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.priorityScoreService = priorityScoreService;
+        this.zonePriorityIndex = zonePriorityIndex;
+    }
+
+    private record Row(long id, int upvotes, LocalDateTime createdAt,
+                       IssueStatus status, String category, double score) {}
+
+    @Scheduled(cron = "${app.priority.recompute.cron:0 5 * * * *}")
+    public void scheduledRecompute() {
+        if (enabled) recompute();
+    }
+
+    /**
+     * Runs one full pass unless one is already in progress.
+     *
+     * @return metrics of this pass, or of the pass already running
+     */
+    public Map<String, Object> recompute() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("[PriorityRecompute] Pass already running, skipped");
+            return lastRun;
+        }
+        try {
+            return doRecompute();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /** Metrics of the most recent completed pass */
+    public Map<String, Object> lastRun() {
+        return lastRun;
+    }
+
+    private Map<String, Object> doRecompute() {
+        long started = System.nanoTime();
+        long scanned = 0, changed = 0, written = 0;
+        int chunks = 0;
+        long afterId = 0;
+        boolean completed = false;
+
+        try {
+            while (true) {
+                List<Row> rows = jdbcTemplate.query(CHUNK_SQL, (rs, i) -> new Row(
+                        rs.getLong("id"),
+                        rs.getInt("upvote_count"),
+                        rs.getObject("created_at", LocalDateTime.class),
+                        IssueStatus.valueOf(rs.getString("status")),
+                        rs.getString("category"),
+                        rs.getDouble("priority_score")), afterId, chunkSize);
+                if (rows.isEmpty()) break;
+
+                List<Object[]> updates = new ArrayList<>();
+                for (Row row : rows) {
+                    double score = priorityScoreService.calculate(
+                            row.upvotes(), row.createdAt(), row.status(), row.category());
+                    if (Math.abs(score - row.score()) > EPSILON) {
+                        updates.add(new Object[]{score, row.id(), row.upvotes(), row.status().name()});
+                    }
+                }
+                if (!updates.isEmpty()) {
+                    // Rows skipped by the guard report 0; driver-rewritten batches may report -2
+                    for (int n : jdbcTemplate.batchUpdate(UPDATE_SQL, updates)) {
+                        written += Math.max(n, 0);
+                    }
+                }
+
+                scanned += rows.size();
+                changed += updates.size();
+                chunks++;
+                afterId = rows.get(rows.size() - 1).id();
+                if (rows.size() < chunkSize) break;
+            }
+            completed = true;
+            // Scores moved outside the write paths the index listens to. Not
+            // gated on changed: when another instance wrote them first this
+            // pass sees nothing to change, but this node's index is still stale
+            if (zonePriorityIndex.isWarm()) zonePriorityIndex.rebuild();
+        } catch (Exception ex) {
+            log.error("[PriorityRecompute] Pass failed after {} rows: {}", scanned, ex.getMessage());
+        }
+
+        return record(started, scanned, changed, written, chunks, completed);
+    }
+
+    private Map<String, Object> record(long started, long scanned, long changed, long written,
+                                       int chunks, boolean completed) {
+        long durationMs = (System.nanoTime() - started) / 1_000_000;
+        double rowsPerSec = durationMs > 0 ? scanned * 1000.0 / durationMs : scanned;
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("finishedAt", LocalDateTime.now().toString());
+        run.put("completed", completed);
+        run.put("durationMs", durationMs);
+        run.put("rowsScanned", scanned);
+        run.put("rowsChanged", changed);
+        run.put("rowsWritten", written);
+        run.put("chunks", chunks);
+        run.put("rowsPerSec", Math.round(rowsPerSec));
+        lastRun = Collections.unmodifiableMap(run);
+
+        log.info("[PriorityRecompute] {} rows scanned, {} changed in {} ms ({} rows/s)",
+                scanned, changed, durationMs, Math.round(rowsPerSec));
+        return lastRun;
+    }
+}
@@ -0,0 +1,103 @@
+package com.civic.issue.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.time.Duration;
+
+/**
+ * Cluster-wide lease lock for scheduled jobs, one row per lock name in
+ * scheduler_locks.
+ *
+ * Acquiring is a single conditional UPDATE that only matches once the
+ * previous lease has run out, so exactly one node wins however many fire at
+ * once. All times come from the database clock, so skew between nodes does
+ * not matter. A lease is held for at most
+ * {@code atMost}, which bounds how long a crashed holder blocks the job,
+ * and for at least {@code atLeast}, so a node whose cron fires a little late
+ * does not run the same job again right after the winner finished.
+ */
+@Slf4j
+@Component
+public class SchedulerLock {
+
+    private static final String ENSURE_SQL = """
+        INSERT IGNORE INTO scheduler_locks (name, owner, locked_at, locked_until)
+        VALUES (?, '', NOW(3), NOW(3))
+        """;
+
+    private static final String ACQUIRE_SQL = """
+        UPDATE scheduler_locks
+        SET owner = ?, locked_at = NOW(3), locked_until = NOW(3) + INTERVAL ? SECOND
+        WHERE name = ? AND locked_until <= NOW(3)
+        """;
+
+    private static final String RELEASE_SQL = """
+        UPDATE scheduler_locks
+        SET locked_until = GREATEST(NOW(3), locked_at + INTERVAL ? SECOND)
+        WHERE name = ? AND owner = ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String       owner;
+
+    public SchedulerLock(JdbcTemplate jdbcTemplate,
+                         @Value("${app.instance-id:}") String instanceId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.owner = StringUtils.hasText(instanceId) ? instanceId : defaultInstanceId();
+        log.info("[SchedulerLock] Instance id: {}", owner);
+    }
+
+    /** This node's lock owner id. */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Runs {@code task} if this node gets the lease on {@code name}.
+     *
+     * @return true if the task ran here, false if another node holds the lease
+     */
+    public boolean runLocked(String name, Duration atMost, Duration atLeast, Runnable task) {
+        if (!tryAcquire(name, atMost)) {
+            log.debug("[SchedulerLock] {} is held elsewhere, skipping", name);
+            return false;
+        }
+        try {
+            task.run();
+        } finally {
+            release(name, atLeast);
+        }
+        return true;
+    }
+
+    public boolean tryAcquire(String name, Duration atMost) {
+        jdbcTemplate.update(ENSURE_SQL, name);
+        return jdbcTemplate.update(ACQUIRE_SQL, owner, atMost.toSeconds(), name) == 1;
+    }
+
+    public void release(String name, Duration atLeast) {
+        try {
+            jdbcTemplate.update(RELEASE_SQL, atLeast.toSeconds(), name, owner);
+        } catch (Exception ex) {
+            // The lease still expires on its own
+            log.warn("[SchedulerLock] Could not release {}: {}", name, ex.getMessage());
+        }
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception ex) {
+            host = "unknown";
+        }
+        // RuntimeMXBean name is "pid@host"
+        return host + ":" + ManagementFactory.getRuntimeMXBean().getName().split("@")[0];
+    }
+}
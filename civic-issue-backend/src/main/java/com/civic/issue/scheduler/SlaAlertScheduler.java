@@ -1,104 +1,344 @@
 package com.civic.issue.scheduler;
 
-import com.civic.issue.entity.Issue;
-import com.civic.issue.entity.Notification;
 import com.civic.issue.entity.User;
-import com.civic.issue.enums.IssueStatus;
 import com.civic.issue.enums.RoleType;
-import com.civic.issue.repository.IssueRepository;
-import com.civic.issue.repository.NotificationRepository;
+import com.civic.issue.enums.Zone;
 import com.civic.issue.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.civic.issue.service.NotificationService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Runs every day at 8:00 AM IST.
  * Finds issues open > 7 days and sends SLA breach notifications to:
- *  1. The assigned zone admin
- *  2. The super admin
+ *  1. The assigned zone admin (or the zone's regional admin if unassigned)
+ *  2. The super admins
  *
- * Enable scheduling in your main class:
- *   @SpringBootApplication
- *   @EnableScheduling   ← add this
+ * The scan is sharded by zone so several instances can share a run. Each
+ * zone is taken under its own SchedulerLock lease and processed in one
+ * transaction that also records the zone as done in sla_breach_shards, so
+ * every zone is handled exactly once per day however many nodes fire. The
+ * node that sees every zone done claims the FINAL shard and sends the
+ * digests. Later cron firings in the same morning pick up zones left
+ * behind by a node that died mid-run and are no-ops otherwise.
+ *
+ * Each zone's breach set comes from one range scan on
+ * idx_issues_zone_status_created and is stored in sla_breach_snapshots;
+ * rows are written as JDBC batches of {@code BATCH_SIZE}, which the driver
+ * rewrites into multi-row INSERTs. In digest mode (the default) each
+ * recipient gets a single notification with counts by zone and a link to
+ * that snapshot; {@code app.sla.alerts.mode=per-issue} sends one
+ * notification per breached issue instead.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class SlaAlertScheduler {
 
-    private final IssueRepository        issueRepository;
-    private final UserRepository         userRepository;
-    private final NotificationRepository notificationRepository;
+    private final JdbcTemplate        jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository      userRepository;
+    private final SchedulerLock       schedulerLock;
+    private final NotificationService notificationService;
+
+    private static final int SLA_DAYS   = 7;
+    private static final int BATCH_SIZE = 1000;
+    private static final int MESSAGE_LENGTH = 255;
+    private static final String FINAL_SHARD = "FINAL";
+    private static final Duration SHARD_LEASE = Duration.ofMinutes(30);
+
+    @Value("${app.sla.alerts.mode:digest}")
+    private String mode;
+
+    @Value("${app.sla.snapshot.retention-days:30}")
+    private int snapshotRetentionDays;
+
+    @Value("${app.frontend.url:http://localhost:3000}")
+    private String frontendUrl;
+
+    public SlaAlertScheduler(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             UserRepository userRepository,
+                             SchedulerLock schedulerLock,
+                             NotificationService notificationService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.schedulerLock = schedulerLock;
+        this.notificationService = notificationService;
+    }
+
+    // Every status but CLOSED, spelled out so each is an index range on (zone, status, created_at)
+    private static final String BREACH_SQL = """
+        SELECT id, title, assigned_to_id, created_at
+        FROM issues
+        WHERE zone = ?
+          AND status IN ('PENDING', 'IN_PROGRESS', 'RESOLVED', 'REOPENED')
+          AND created_at < ?
+        """;
+
+    // Rows from before the zone column default count as UNASSIGNED
+    private static final String UNASSIGNED_BREACH_SQL = """
+        SELECT id, title, assigned_to_id, created_at
+        FROM issues
+        WHERE (zone = 'UNASSIGNED' OR zone IS NULL)
+          AND status IN ('PENDING', 'IN_PROGRESS', 'RESOLVED', 'REOPENED')
+          AND created_at < ?
+        """;
+
+    private static final String INSERT_NOTIFICATION_SQL = """
+        INSERT INTO notifications (message, created_at, user_id, is_read)
+        VALUES (?, ?, ?, FALSE)
+        """;
+
+    // Keeps the inbox badge counter in step with the rows inserted above
+    private static final String INCREMENT_UNREAD_SQL = """
+        INSERT INTO notification_unread_counts (user_id, unread) VALUES (?, ?)
+        ON DUPLICATE KEY UPDATE unread = unread + VALUES(unread)
+        """;
+
+    // An issue moved to another zone between two shard runs of the same day
+    // is already in the snapshot; the later shard's view of it replaces the
+    // row instead of failing that shard on uk_sla_breach_run_issue
+    private static final String INSERT_SNAPSHOT_SQL = """
+        INSERT INTO sla_breach_snapshots
+            (run_date, issue_id, title, zone, assigned_to_id, recipient_id, issue_created_at, days_pending)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            title = VALUES(title), zone = VALUES(zone), assigned_to_id = VALUES(assigned_to_id),
+            recipient_id = VALUES(recipient_id), days_pending = VALUES(days_pending)
+        """;
 
-    private static final int SLA_DAYS = 7;
+    private static final String CLAIM_SHARD_SQL = """
+        INSERT IGNORE INTO sla_breach_shards (run_date, shard, owner, completed_at)
+        VALUES (?, ?, ?, ?)
+        """;
+
+    private record Recipients(List<Long> superAdminIds, Map<Zone, Long> regionalAdminIds) {}
 
     /**
-     * Runs every day at 08:00 AM IST (UTC+5:30 = 02:30 UTC)
+     * First firing at 08:00 AM IST (UTC+5:30 = 02:30 UTC), then hourly until
+     * 11:30 IST to finish any zone a failed node left behind.
      * cron format: second minute hour day month weekday
      */
-    @Scheduled(cron = "0 30 2 * * *")  // 08:00 IST daily
+    @Scheduled(cron = "${app.sla.alerts.cron:0 30 2-5 * * *}")
     public void checkSlaBreaches() {
-        LocalDateTime now       = LocalDateTime.now();
-        LocalDateTime threshold = now.minusDays(SLA_DAYS);
-
-        List<Issue> breachedIssues = issueRepository.findAllByOrderByCreatedAtDesc()
-                .stream()
-                .filter(i -> i.getStatus() != IssueStatus.CLOSED)
-                .filter(i -> i.getCreatedAt() != null && i.getCreatedAt().isBefore(threshold))
-                .toList();
+        LocalDateTime now     = LocalDateTime.now();
+        LocalDate     runDate = now.toLocalDate();
+        if (isDone(runDate, FINAL_SHARD)) return;
 
-        if (breachedIssues.isEmpty()) {
-            log.info("SLA Scheduler: No breaches found today ✅");
-            return;
+        Recipients recipients = loadRecipients();
+        int processed = 0;
+        for (Zone zone : shardOrder()) {
+            if (isDone(runDate, zone.name())) continue;
+            boolean[] ran = new boolean[1];
+            schedulerLock.runLocked("sla-breaches:" + zone.name(), SHARD_LEASE, Duration.ZERO, () -> {
+                // Another node may have finished it while we were acquiring
+                if (isDone(runDate, zone.name())) return;
+                processZone(zone, runDate, now, recipients);
+                ran[0] = true;
+            });
+            if (ran[0]) processed++;
         }
 
-        log.warn("SLA Scheduler: {} issues have breached 7-day SLA", breachedIssues.size());
+        if (allZonesDone(runDate)) finish(runDate, now, recipients);
+        if (processed > 0) log.info("SLA Scheduler: {} processed {} zone shard(s)", schedulerLock.getOwner(), processed);
+    }
+
+    /**
+     * Scans one zone and writes its snapshot (and per-issue alerts) together
+     * with its done marker, so a crash leaves the zone wholly unprocessed.
+     */
+    private void processZone(Zone zone, LocalDate runDate, LocalDateTime now, Recipients recipients) {
+        boolean perIssue = isPerIssueMode();
+        Timestamp threshold = Timestamp.valueOf(now.minusDays(SLA_DAYS));
+        Timestamp createdAt = Timestamp.valueOf(now);
+        Long zoneAdmin = zone != Zone.UNASSIGNED ? recipients.regionalAdminIds().get(zone) : null;
+
+        Integer breached = transactionTemplate.execute(status -> {
+            List<Object[]> notifications = new ArrayList<>(BATCH_SIZE);
+            List<Object[]> snapshots     = new ArrayList<>(BATCH_SIZE);
+            int[] count = new int[1];
+
+            jdbcTemplate.query(zone == Zone.UNASSIGNED ? UNASSIGNED_BREACH_SQL : BREACH_SQL, rs -> {
+                long issueId        = rs.getLong("id");
+                String title        = rs.getString("title");
+                long assignedTo     = rs.getLong("assigned_to_id");
+                boolean hasAssignee = !rs.wasNull();
+                Timestamp opened    = rs.getTimestamp("created_at");
+                long daysPending    = ChronoUnit.DAYS.between(opened.toLocalDateTime(), now);
+
+                // Assigned zone user, else the zone's regional admin
+                Long zoneRecipient = hasAssignee ? Long.valueOf(assignedTo) : zoneAdmin;
+
+                snapshots.add(new Object[]{Date.valueOf(runDate), issueId, title, zone.name(),
+                        hasAssignee ? assignedTo : null, zoneRecipient, opened, daysPending});
 
-        // Notify super admins
-        List<User> superAdmins = userRepository.findByRole(RoleType.ADMIN);
+                if (perIssue) {
+                    String message = String.format(
+                            "⚠️ SLA Breach: Issue #%d '%s' in %s zone has been open for %d days (SLA: %d days). Immediate action required.",
+                            issueId, title, zone.name(), daysPending, SLA_DAYS
+                    );
+                    if (zoneRecipient != null) notifications.add(new Object[]{message, createdAt, zoneRecipient});
+                    for (Long adminId : recipients.superAdminIds()) notifications.add(new Object[]{message, createdAt, adminId});
+                }
 
-        for (Issue issue : breachedIssues) {
-            long daysPending = ChronoUnit.DAYS.between(issue.getCreatedAt(), now);
+                count[0]++;
+                if (snapshots.size() >= BATCH_SIZE) flush(INSERT_SNAPSHOT_SQL, snapshots);
+                if (notifications.size() >= BATCH_SIZE) flushNotifications(notifications);
+            }, zone == Zone.UNASSIGNED ? new Object[]{threshold} : new Object[]{zone.name(), threshold});
 
-            String message = String.format(
-                    "⚠️ SLA Breach: Issue #%d '%s' in %s zone has been open for %d days (SLA: %d days). Immediate action required.",
-                    issue.getId(), issue.getTitle(),
-                    issue.getZone() != null ? issue.getZone().name() : "UNASSIGNED",
-                    daysPending, SLA_DAYS
-            );
+            flush(INSERT_SNAPSHOT_SQL, snapshots);
+            flushNotifications(notifications);
+            jdbcTemplate.update(CLAIM_SHARD_SQL, Date.valueOf(runDate), zone.name(),
+                    schedulerLock.getOwner(), createdAt);
+            return count[0];
+        });
 
-            // Notify assigned zone user or regional admin
-            if (issue.getAssignedTo() != null) {
-                saveNotification(issue.getAssignedTo(), message);
-            } else if (issue.getZone() != null && issue.getZone() != com.civic.issue.enums.Zone.UNASSIGNED) {
-                userRepository.findByRoleAndZone(RoleType.REGIONAL_ADMIN, issue.getZone())
-                        .ifPresent(admin -> saveNotification(admin, message));
+        if (breached != null && breached > 0) {
+            log.warn("SLA Scheduler: {} issues in {} have breached {}-day SLA", breached, zone, SLA_DAYS);
+        }
+    }
+
+    /** Once per day: digests (in digest mode) and snapshot retention. */
+    private void finish(LocalDate runDate, LocalDateTime now, Recipients recipients) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Whoever inserts the FINAL marker does the work; a rollback releases it
+            int claimed = jdbcTemplate.update(CLAIM_SHARD_SQL, Date.valueOf(runDate), FINAL_SHARD,
+                    schedulerLock.getOwner(), Timestamp.valueOf(now));
+            if (claimed != 1) return;
+
+            if (!isPerIssueMode()) {
+                int written = sendDigests(runDate, now, recipients);
+                log.info("SLA Scheduler: {} digest notifications written", written);
             }
 
-            // Notify all super admins
-            for (User admin : superAdmins) {
-                saveNotification(admin, message);
+            LocalDate cutoff = runDate.minusDays(snapshotRetentionDays);
+            jdbcTemplate.update("DELETE FROM sla_breach_snapshots WHERE run_date < ?", Date.valueOf(cutoff));
+            jdbcTemplate.update("DELETE FROM sla_breach_shards WHERE run_date < ?", Date.valueOf(cutoff));
+        });
+    }
+
+    private int sendDigests(LocalDate runDate, LocalDateTime now, Recipients recipients) {
+        Date day = Date.valueOf(runDate);
+        Map<Zone, Integer> totalByZone = new EnumMap<>(Zone.class);
+        jdbcTemplate.query("""
+                SELECT zone, COUNT(*) AS n FROM sla_breach_snapshots
+                WHERE run_date = ? GROUP BY zone
+                """,
+                rs -> { totalByZone.put(Zone.valueOf(rs.getString("zone")), rs.getInt("n")); }, day);
+        if (totalByZone.isEmpty()) {
+            log.info("SLA Scheduler: No breaches found today ✅");
+            return 0;
+        }
+
+        Map<Long, Map<Zone, Integer>> byZoneRecipient = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT recipient_id, zone, COUNT(*) AS n FROM sla_breach_snapshots
+                WHERE run_date = ? AND recipient_id IS NOT NULL
+                GROUP BY recipient_id, zone
+                """,
+                rs -> {
+                    byZoneRecipient.computeIfAbsent(rs.getLong("recipient_id"), id -> new EnumMap<>(Zone.class))
+                            .put(Zone.valueOf(rs.getString("zone")), rs.getInt("n"));
+                }, day);
+
+        Timestamp createdAt = Timestamp.valueOf(now);
+        List<Object[]> notifications = new ArrayList<>();
+        String fullDigest = digestMessage(runDate, totalByZone);
+        Set<Long> superAdmins = new HashSet<>(recipients.superAdminIds());
+        for (Long adminId : superAdmins) notifications.add(new Object[]{fullDigest, createdAt, adminId});
+        byZoneRecipient.forEach((userId, counts) -> {
+            // A super admin who is also a zone recipient gets only the full digest
+            if (!superAdmins.contains(userId)) {
+                notifications.add(new Object[]{digestMessage(runDate, counts), createdAt, userId});
             }
+        });
+        return flushNotifications(notifications);
+    }
 
-            log.warn("SLA breach alert sent for Issue #{} — {} days pending", issue.getId(), daysPending);
+    private Recipients loadRecipients() {
+        List<Long> superAdminIds = userRepository.findByRole(RoleType.ADMIN).stream()
+                .map(User::getId)
+                .toList();
+        Map<Zone, Long> regionalAdminIds = new EnumMap<>(Zone.class);
+        for (User admin : userRepository.findByRole(RoleType.REGIONAL_ADMIN)) {
+            if (admin.getZone() != null) regionalAdminIds.putIfAbsent(admin.getZone(), admin.getId());
         }
+        return new Recipients(superAdminIds, regionalAdminIds);
+    }
+
+    // Nodes start at different zones so a shared run spreads out from the first shard
+    private List<Zone> shardOrder() {
+        List<Zone> zones = new ArrayList<>(List.of(Zone.values()));
+        Collections.rotate(zones, Math.floorMod(schedulerLock.getOwner().hashCode(), zones.size()));
+        return zones;
+    }
+
+    private boolean isDone(LocalDate runDate, String shard) {
+        Integer n = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM sla_breach_shards WHERE run_date = ? AND shard = ?",
+                Integer.class, Date.valueOf(runDate), shard);
+        return n != null && n > 0;
+    }
+
+    private boolean allZonesDone(LocalDate runDate) {
+        Integer n = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM sla_breach_shards WHERE run_date = ? AND shard <> ?",
+                Integer.class, Date.valueOf(runDate), FINAL_SHARD);
+        return n != null && n >= Zone.values().length;
+    }
+
+    private boolean isPerIssueMode() {
+        return "per-issue".equalsIgnoreCase(mode);
+    }
 
-        log.info("SLA Scheduler: Sent breach alerts for {} issues", breachedIssues.size());
+    // e.g. "⚠️ SLA Digest 2026-10-16: 42 issues open > 7 days — NORTH 30, SOUTH 12. Review: …"
+    private String digestMessage(LocalDate runDate, Map<Zone, Integer> counts) {
+        int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+        String zones = counts.entrySet().stream()
+                .map(e -> e.getKey().name() + " " + e.getValue())
+                .collect(Collectors.joining(", "));
+        String link = frontendUrl + "/sla-breaches?date=" + runDate;
+        String message = String.format("⚠️ SLA Digest %s: %d issue%s open > %d days — %s. Review: %s",
+                runDate, total, total == 1 ? "" : "s", SLA_DAYS, zones, link);
+        return message.length() <= MESSAGE_LENGTH ? message
+                : String.format("⚠️ SLA Digest %s: %d issues open > %d days. Review: %s",
+                        runDate, total, SLA_DAYS, link);
+    }
+
+    // Rows are {message, createdAt, userId}
+    private int flushNotifications(List<Object[]> rows) {
+        Map<Long, Integer> perUser = new TreeMap<>();   // fixed lock order on the counter rows
+        for (Object[] row : rows) perUser.merge((Long) row[2], 1, Integer::sum);
+        int n = flush(INSERT_NOTIFICATION_SQL, rows);
+        if (n > 0) {
+            jdbcTemplate.batchUpdate(INCREMENT_UNREAD_SQL, perUser.entrySet().stream()
+                    .map(e -> new Object[]{e.getKey(), e.getValue()})
+                    .toList());
+            // Badge updates reach open streams once this shard commits
+            notificationService.pushUnreadCounts(perUser.keySet());
+        }
+        return n;
     }
 
-    private void saveNotification(User user, String message) {
-        notificationRepository.save(
-                Notification.builder()
-                        .message(message)
-                        .user(user)
-                        .build()
-        );
+    private int flush(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) return 0;
+        jdbcTemplate.batchUpdate(sql, rows);
+        int n = rows.size();
+        rows.clear();
+        return n;
     }
 }
@@ -9,7 +9,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
@@ -36,7 +35,6 @@ public class OAuth2AuthenticationSuccessHandler
 
     private final JwtUtil            jwtUtil;
     private final UserRepository      userRepository;
-    private final UserDetailsService userDetailsService;
 
     @Value("${app.oauth2.authorized-redirect-uri:http://localhost:3000/oauth2/redirect}")
     private String authorizedRedirectUri;
@@ -59,8 +57,7 @@ public class OAuth2AuthenticationSuccessHandler
                 .orElseThrow(() -> new RuntimeException(
                         "User not found after OAuth success: " + email));
 
-        var userDetails = userDetailsService.loadUserByUsername(email);
-        String token = jwtUtil.generateToken(userDetails);
+        String token = jwtUtil.generateToken(user);
 
         log.info("OAuth2 success — JWT issued for: {} ({})", email, user.getRole());
 
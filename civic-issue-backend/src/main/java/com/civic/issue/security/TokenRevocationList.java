@@ -0,0 +1,45 @@
+package com.civic.issue.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Per-user "stale before" marks for stateless JWTs.
+ *
+ * When a user's role, zone or account changes, tokens issued up to that
+ * second no longer carry trustworthy claims; the filter then re-reads the
+ * user and issues a fresh token. A mark only has to outlive the tokens it
+ * covers, so entries expire after one stateless token lifetime and the
+ * list stays proportional to recent account changes.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final Cache<String, Long> staleBefore;
+
+    public TokenRevocationList(@Value("${app.jwt.stateless-expiration-ms:900000}") long tokenLifetimeMs) {
+        this.staleBefore = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(tokenLifetimeMs))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public void markStale(String email) {
+        if (email != null) staleBefore.put(email, Instant.now().getEpochSecond());
+    }
+
+    /** iat has second precision, so a token from the same second counts as stale. */
+    public boolean isStale(Claims claims) {
+        Long mark = staleBefore.getIfPresent(claims.getSubject());
+        if (mark == null) return false;
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null || issuedAt.toInstant().getEpochSecond() <= mark;
+    }
+}
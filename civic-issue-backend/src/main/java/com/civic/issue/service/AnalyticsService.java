@@ -1,16 +1,17 @@
 package com.civic.issue.service;
 
 import com.civic.issue.dto.AnalyticsResponse;
-import com.civic.issue.entity.Issue;
-import com.civic.issue.entity.User;
 import com.civic.issue.enums.IssueStatus;
 import com.civic.issue.enums.RoleType;
 import com.civic.issue.enums.Zone;
+import com.civic.issue.repository.AnalyticsRows;
 import com.civic.issue.repository.IssueRepository;
+import com.civic.issue.repository.IssueRollupRepository;
 import com.civic.issue.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -20,133 +21,118 @@ import java.util.stream.Collectors;
 public class AnalyticsService {
 
     private final IssueRepository issueRepository;
+    private final IssueRollupRepository rollupRepository;
     private final UserRepository userRepository;
 
-    public AnalyticsService(IssueRepository issueRepository, UserRepository userRepository) {
+    /**
+     * true  → read pre-aggregated issue_rollups (O(days × zones) rows).
+     * false → aggregate the issues table live (exact to the second).
+     */
+    @Value("${app.analytics.rollups.enabled:true}")
+    private boolean useRollups;
+
+    public AnalyticsService(IssueRepository issueRepository,
+                            IssueRollupRepository rollupRepository,
+                            UserRepository userRepository) {
         this.issueRepository = issueRepository;
+        this.rollupRepository = rollupRepository;
         this.userRepository = userRepository;
     }
 
     public AnalyticsResponse getAdminAnalytics() {
-        List<Issue> issues = issueRepository.findAll();
-        return computeAnalytics(issues);
+        return computeAnalytics(IssueRepository.ALL_ZONES);
     }
 
     public AnalyticsResponse getRegionalAnalytics(Zone zone) {
-        List<Issue> issues = issueRepository.findByZoneOrderByCreatedAtDesc(zone);
-        return computeAnalytics(issues);
+        return computeAnalytics(zone != null ? zone.name() : null);
     }
 
-    private AnalyticsResponse computeAnalytics(List<Issue> issues) {
+    /**
+     * All figures are aggregated in SQL (GROUP BY on issues or on the
+     * rollup tables); only the summary rows reach the JVM.
+     */
+    private AnalyticsResponse computeAnalytics(String zoneFilter) {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime firstDayOfMonth = now.withDayOfMonth(1).withHour(0).withMinute(0);
 
-        // Core KPIs
-        long total       = issues.size();
-        long closed      = issues.stream().filter(i -> i.getStatus() == IssueStatus.CLOSED).count();
+        // Core KPIs — one multi-aggregate query
+        AnalyticsRows.Kpis kpis = fetchKpis(zoneFilter, now, firstDayOfMonth);
+        long total       = asLong(kpis.getTotal());
+        long closed      = asLong(kpis.getClosed());
         long open        = total - closed;
-        long thisMonth   = issues.stream().filter(i -> i.getCreatedAt() != null && i.getCreatedAt().isAfter(firstDayOfMonth)).count();
-        
+        long thisMonth   = asLong(kpis.getThisMonth());
+
         // SLA Breach: Either currently open and >3 days old, OR resolved/closed after >3 days
-        long slaBreaches = issues.stream()
-                .filter(i -> {
-                    if (i.getCreatedAt() == null) return false;
-                    LocalDateTime completionTime = (i.getResolvedAt() != null) ? i.getResolvedAt() : (i.getClosedAt() != null ? i.getClosedAt() : now);
-                    return Duration.between(i.getCreatedAt(), completionTime).toDays() >= 3;
-                })
-                .count();
+        long slaBreaches = asLong(kpis.getSlaBreaches());
 
         // Avg Resolution Days (for both RESOLVED and CLOSED issues)
-        double avgDays = issues.stream()
-                .filter(i -> (i.getStatus() == IssueStatus.CLOSED || i.getStatus() == IssueStatus.RESOLVED) && i.getCreatedAt() != null)
-                .mapToLong(i -> {
-                    LocalDateTime end = i.getResolvedAt() != null ? i.getResolvedAt() : (i.getClosedAt() != null ? i.getClosedAt() : now);
-                    return Duration.between(i.getCreatedAt(), end).toDays();
-                })
-                .average()
-                .orElse(0.0);
+        double avgDays = average(kpis.getResolvedDays(), kpis.getResolvedCount());
 
         return new AnalyticsResponse(
                 total, open, closed, Math.round(avgDays * 10.0) / 10.0,
                 slaBreaches, thisMonth,
-                computeDailyTrends(issues),
-                computeStatusBreakdown(issues),
-                computeZoneStats(issues),
-                computeTopCategories(issues),
-                computeMonthlyTrends(issues)
+                computeDailyTrends(zoneFilter),
+                computeStatusBreakdown(zoneFilter),
+                computeZoneStats(zoneFilter, now),
+                computeTopCategories(zoneFilter),
+                computeMonthlyTrends(zoneFilter)
         );
     }
 
-    private List<AnalyticsResponse.DailyTrend> computeDailyTrends(List<Issue> issues) {
+    private List<AnalyticsResponse.DailyTrend> computeDailyTrends(String zone) {
         DateTimeFormatter dtf = DateTimeFormatter.ofPattern("MMM dd");
         Map<String, AnalyticsResponse.DailyTrend> trendMap = new LinkedHashMap<>();
-        
+
         // Last 14 days
         for (int i = 13; i >= 0; i--) {
             String dateStr = LocalDateTime.now().minusDays(i).format(dtf);
             trendMap.put(dateStr, new AnalyticsResponse.DailyTrend(dateStr, 0, 0));
         }
 
-        for (Issue issue : issues) {
-            if (issue.getCreatedAt() == null) continue;
-            String createdDate = issue.getCreatedAt().format(dtf);
-            if (trendMap.containsKey(createdDate)) {
-                trendMap.get(createdDate).setSubmitted(trendMap.get(createdDate).getSubmitted() + 1);
-            }
-            // Count both RESOLVED and CLOSED as "Resolved Action"
-            if ((issue.getStatus() == IssueStatus.RESOLVED || issue.getStatus() == IssueStatus.CLOSED)) {
-                LocalDateTime resolvedTime = issue.getClosedAt() != null ? issue.getClosedAt() : issue.getResolvedAt();
-                if (resolvedTime != null) {
-                   String resolvedDate = resolvedTime.format(dtf);
-                   if (trendMap.containsKey(resolvedDate)) {
-                       trendMap.get(resolvedDate).setResolved(trendMap.get(resolvedDate).getResolved() + 1);
-                   }
-                }
-            }
+        for (AnalyticsRows.DayCount row : fetchSubmittedByDay(zone)) {
+            AnalyticsResponse.DailyTrend trend = trendMap.get(dayLabel(row, dtf));
+            if (trend != null) trend.setSubmitted(trend.getSubmitted() + asLong(row.getCount()));
+        }
+        // Count both RESOLVED and CLOSED as "Resolved Action"
+        for (AnalyticsRows.DayCount row : fetchResolvedByDay(zone)) {
+            AnalyticsResponse.DailyTrend trend = trendMap.get(dayLabel(row, dtf));
+            if (trend != null) trend.setResolved(trend.getResolved() + asLong(row.getCount()));
         }
         return new ArrayList<>(trendMap.values());
     }
 
-    private List<AnalyticsResponse.StatusCount> computeStatusBreakdown(List<Issue> issues) {
-        Map<IssueStatus, Long> counts = issues.stream()
-                .collect(Collectors.groupingBy(Issue::getStatus, Collectors.counting()));
-        
+    private List<AnalyticsResponse.StatusCount> computeStatusBreakdown(String zone) {
+        Map<String, Long> counts = new HashMap<>();
+        for (AnalyticsRows.StatusCount row : fetchByStatus(zone)) {
+            counts.put(row.getStatus(), asLong(row.getCount()));
+        }
+
         return Arrays.stream(IssueStatus.values())
-                .map(s -> new AnalyticsResponse.StatusCount(s.name(), counts.getOrDefault(s, 0L)))
+                .map(s -> new AnalyticsResponse.StatusCount(s.name(), counts.getOrDefault(s.name(), 0L)))
                 .collect(Collectors.toList());
     }
 
-    private List<AnalyticsResponse.ZoneStat> computeZoneStats(List<Issue> issues) {
-        List<AnalyticsResponse.ZoneStat> stats = new ArrayList<>();
-        LocalDateTime now = LocalDateTime.now();
+    private List<AnalyticsResponse.ZoneStat> computeZoneStats(String zoneFilter, LocalDateTime now) {
+        Map<String, AnalyticsRows.ZoneKpis> byZone = new HashMap<>();
+        for (AnalyticsRows.ZoneKpis row : fetchByZone(zoneFilter, now)) {
+            byZone.put(row.getZone(), row);
+        }
 
+        Map<Zone, String> adminNames = IssueStatsAccumulator.adminNamesByZone(
+                userRepository.findByRole(RoleType.REGIONAL_ADMIN));
+
+        List<AnalyticsResponse.ZoneStat> stats = new ArrayList<>();
         for (Zone zone : Zone.values()) {
             if (zone == Zone.UNASSIGNED) continue;
-            List<Issue> zoneIssues = issues.stream().filter(i -> i.getZone() == zone).collect(Collectors.toList());
-            
-            long total = zoneIssues.size();
-            long closed = zoneIssues.stream().filter(i -> i.getStatus() == IssueStatus.CLOSED).count();
-            long open = total - closed;
-            long breaches = zoneIssues.stream()
-                    .filter(i -> {
-                        if (i.getCreatedAt() == null) return false;
-                        LocalDateTime completionTime = (i.getResolvedAt() != null) ? i.getResolvedAt() : (i.getClosedAt() != null ? i.getClosedAt() : now);
-                        return Duration.between(i.getCreatedAt(), completionTime).toDays() >= 3;
-                    })
-                    .count();
-            
-            double avg = zoneIssues.stream()
-                    .filter(i -> (i.getStatus() == IssueStatus.CLOSED || i.getStatus() == IssueStatus.RESOLVED) && i.getCreatedAt() != null)
-                    .mapToLong(i -> {
-                        LocalDateTime end = i.getResolvedAt() != null ? i.getResolvedAt() : (i.getClosedAt() != null ? i.getClosedAt() : now);
-                        return Duration.between(i.getCreatedAt(), end).toDays();
-                    })
-                    .average().orElse(0.0);
-
-            // Find Admin Name
-            String adminName = userRepository.findByRoleAndZone(RoleType.REGIONAL_ADMIN, zone)
-                    .map(User::getName)
-                    .orElse("NOT ASSIGNED");
+            AnalyticsRows.ZoneKpis row = byZone.get(zone.name());
+
+            long total    = row != null ? asLong(row.getTotal()) : 0;
+            long closed   = row != null ? asLong(row.getClosed()) : 0;
+            long open     = total - closed;
+            long breaches = row != null ? asLong(row.getSlaBreaches()) : 0;
+            double avg    = row != null ? average(row.getResolvedDays(), row.getResolvedCount()) : 0.0;
+
+            String adminName = adminNames.getOrDefault(zone, "NOT ASSIGNED");
 
             stats.add(new AnalyticsResponse.ZoneStat(
                 zone.name(), adminName, total, open, closed, Math.round(avg * 10.0) / 10.0, breaches
@@ -155,18 +141,13 @@ public class AnalyticsService {
         return stats;
     }
 
-    private List<AnalyticsResponse.CategoryStat> computeTopCategories(List<Issue> issues) {
-        return issues.stream()
-                .filter(i -> i.getCategory() != null)
-                .collect(Collectors.groupingBy(Issue::getCategory, Collectors.counting()))
-                .entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(8)
-                .map(e -> new AnalyticsResponse.CategoryStat(e.getKey(), e.getValue()))
+    private List<AnalyticsResponse.CategoryStat> computeTopCategories(String zone) {
+        return fetchTopCategories(zone, 8).stream()
+                .map(r -> new AnalyticsResponse.CategoryStat(r.getCategory(), asLong(r.getCount())))
                 .collect(Collectors.toList());
     }
 
-    private List<AnalyticsResponse.MonthlyTrend> computeMonthlyTrends(List<Issue> issues) {
+    private List<AnalyticsResponse.MonthlyTrend> computeMonthlyTrends(String zone) {
         DateTimeFormatter dtf = DateTimeFormatter.ofPattern("MMM");
         Map<String, AnalyticsResponse.MonthlyTrend> trendMap = new LinkedHashMap<>();
 
@@ -176,23 +157,92 @@ public class AnalyticsService {
             trendMap.put(month, new AnalyticsResponse.MonthlyTrend(month, 0, 0));
         }
 
-        for (Issue issue : issues) {
-            if (issue.getCreatedAt() == null) continue;
-            String createdMonth = issue.getCreatedAt().format(dtf);
-            if (trendMap.containsKey(createdMonth)) {
-                trendMap.get(createdMonth).setSubmitted(trendMap.get(createdMonth).getSubmitted() + 1);
-            }
-            
-            if (issue.getStatus() == IssueStatus.RESOLVED || issue.getStatus() == IssueStatus.CLOSED) {
-                LocalDateTime resolvedTime = issue.getClosedAt() != null ? issue.getClosedAt() : issue.getResolvedAt();
-                if (resolvedTime != null) {
-                    String resolvedMonth = resolvedTime.format(dtf);
-                    if (trendMap.containsKey(resolvedMonth)) {
-                        trendMap.get(resolvedMonth).setResolved(trendMap.get(resolvedMonth).getResolved() + 1);
-                    }
-                }
-            }
+        for (AnalyticsRows.MonthCount row : fetchSubmittedByMonth(zone)) {
+            AnalyticsResponse.MonthlyTrend trend = trendMap.get(monthLabel(row, dtf));
+            if (trend != null) trend.setSubmitted(trend.getSubmitted() + asLong(row.getCount()));
+        }
+        for (AnalyticsRows.MonthCount row : fetchResolvedByMonth(zone)) {
+            AnalyticsResponse.MonthlyTrend trend = trendMap.get(monthLabel(row, dtf));
+            if (trend != null) trend.setResolved(trend.getResolved() + asLong(row.getCount()));
         }
         return new ArrayList<>(trendMap.values());
     }
+
+    // ── Row sources: live issues table vs. rollups ───────────────────────────
+    // Rollups store issues without a zone under '' and are bucketed by day,
+    // so SLA ageing of open issues is resolved to the calendar day.
+
+    private static String rollupZone(String zone) {
+        return zone != null ? zone : "";
+    }
+
+    private AnalyticsRows.Kpis fetchKpis(String zone, LocalDateTime now, LocalDateTime monthStart) {
+        return useRollups
+                ? rollupRepository.aggregateKpis(rollupZone(zone), now.toLocalDate().minusDays(3), monthStart.toLocalDate())
+                : issueRepository.aggregateKpis(zone, now, monthStart);
+    }
+
+    private List<AnalyticsRows.ZoneKpis> fetchByZone(String zone, LocalDateTime now) {
+        return useRollups
+                ? rollupRepository.aggregateByZone(rollupZone(zone), now.toLocalDate().minusDays(3))
+                : issueRepository.aggregateByZone(zone, now);
+    }
+
+    private List<AnalyticsRows.StatusCount> fetchByStatus(String zone) {
+        return useRollups
+                ? rollupRepository.countByStatus(rollupZone(zone))
+                : issueRepository.countByStatus(zone);
+    }
+
+    private List<AnalyticsRows.CategoryCount> fetchTopCategories(String zone, int limit) {
+        return useRollups
+                ? rollupRepository.topCategories(rollupZone(zone), limit)
+                : issueRepository.topCategories(zone, limit);
+    }
+
+    private List<AnalyticsRows.DayCount> fetchSubmittedByDay(String zone) {
+        return useRollups
+                ? rollupRepository.countSubmittedByDay(rollupZone(zone), LocalDate.now().minusDays(13))
+                : issueRepository.countSubmittedByDay(zone);
+    }
+
+    private List<AnalyticsRows.DayCount> fetchResolvedByDay(String zone) {
+        return useRollups
+                ? rollupRepository.countResolvedByDay(rollupZone(zone), LocalDate.now().minusDays(13))
+                : issueRepository.countResolvedByDay(zone);
+    }
+
+    private List<AnalyticsRows.MonthCount> fetchSubmittedByMonth(String zone) {
+        return useRollups
+                ? rollupRepository.countSubmittedByMonth(rollupZone(zone), LocalDate.now().minusMonths(5).withDayOfMonth(1))
+                : issueRepository.countSubmittedByMonth(zone);
+    }
+
+    private List<AnalyticsRows.MonthCount> fetchResolvedByMonth(String zone) {
+        return useRollups
+                ? rollupRepository.countResolvedByMonth(rollupZone(zone), LocalDate.now().minusMonths(5).withDayOfMonth(1))
+                : issueRepository.countResolvedByMonth(zone);
+    }
+
+    // ── Row helpers ───────────────────────────────────────────────────────────
+
+    // Leap year so that Feb 29 buckets format like any other day
+    private static final int LABEL_YEAR = 2000;
+
+    private static String dayLabel(AnalyticsRows.DayCount row, DateTimeFormatter dtf) {
+        return LocalDate.of(LABEL_YEAR, row.getMonth().intValue(), row.getDay().intValue()).format(dtf);
+    }
+
+    private static String monthLabel(AnalyticsRows.MonthCount row, DateTimeFormatter dtf) {
+        return LocalDate.of(LABEL_YEAR, row.getMonth().intValue(), 1).format(dtf);
+    }
+
+    private static long asLong(Number n) {
+        return n != null ? n.longValue() : 0L;
+    }
+
+    private static double average(Number sum, Number count) {
+        long c = asLong(count);
+        return c == 0 ? 0.0 : (double) asLong(sum) / c;
+    }
 }
@@ -0,0 +1,154 @@
+package com.civic.issue.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs inbound bot messages off the webhook thread.
+ *
+ * Messages are queued per phone number and each phone's queue is drained by
+ * one virtual thread at a time, so a photo, its location and the CONFIRM
+ * that follows are handled in arrival order. Across phones, at most
+ * {@code max-concurrent} messages run at once and at most {@code max-queued}
+ * wait; beyond that submit() refuses the message so the webhook can ask
+ * Twilio to retry instead of piling up work.
+ */
+@Slf4j
+@Service
+public class BotMessageDispatcher {
+
+    private final int maxQueued;
+    private final Semaphore running;
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bot-", 0).factory());
+
+    // phone → messages not yet started; a lane exists only while it is draining
+    private final Map<String, ArrayDeque<Task>> lanes = new ConcurrentHashMap<>();
+
+    // pending counts every accepted message until it finishes; active those running now
+    private final AtomicInteger pending   = new AtomicInteger();
+    private final AtomicInteger active    = new AtomicInteger();
+    private final LongAdder     completed = new LongAdder();
+    private final LongAdder     failed    = new LongAdder();
+    private final LongAdder     rejected  = new LongAdder();
+    private final LongAdder     waitNanos = new LongAdder();
+    private final LongAdder     runNanos  = new LongAdder();
+    private final AtomicLong    maxWaitNanos = new AtomicLong();
+    private final AtomicLong    maxRunNanos  = new AtomicLong();
+
+    private record Task(Runnable work, long enqueuedAt) {}
+
+    public BotMessageDispatcher(@Value("${app.bot.dispatcher.max-concurrent:16}") int maxConcurrent,
+                                @Value("${app.bot.dispatcher.max-queued:1000}") int maxQueued) {
+        this.maxQueued = maxQueued;
+        this.running = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Queues {@code work} behind earlier messages from the same phone.
+     *
+     * @return false if the queue is full and the message was not accepted
+     */
+    public boolean submit(String phone, Runnable work) {
+        if (pending.incrementAndGet() > maxQueued) {
+            pending.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        Task task = new Task(work, System.nanoTime());
+        boolean[] startLane = new boolean[1];
+        lanes.compute(phone, (key, lane) -> {
+            if (lane == null) {
+                lane = new ArrayDeque<>();
+                startLane[0] = true;
+            }
+            lane.add(task);
+            return lane;
+        });
+        if (startLane[0]) executor.execute(() -> drain(phone));
+        return true;
+    }
+
+    private void drain(String phone) {
+        while (true) {
+            Task[] next = new Task[1];
+            // Take the head, or retire the lane when it is empty so the next
+            // submit for this phone starts a fresh drainer
+            lanes.computeIfPresent(phone, (key, lane) -> {
+                next[0] = lane.poll();
+                return next[0] == null ? null : lane;
+            });
+            if (next[0] == null) return;
+            run(phone, next[0]);
+        }
+    }
+
+    private void run(String phone, Task task) {
+        try {
+            running.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            pending.decrementAndGet();
+            log.warn("[BotDispatcher] Interrupted before handling message from {}", phone);
+            return;
+        }
+        active.incrementAndGet();
+        long started = System.nanoTime();
+        long waited = started - task.enqueuedAt();
+        waitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        try {
+            task.work().run();
+            completed.increment();
+        } catch (Throwable ex) {
+            // Errors too: one escaping here would end drain() without retiring
+            // the lane, and every later message from this phone would sit in it
+            failed.increment();
+            log.error("CRITICAL BOT ERROR for {}: {}", phone, ex.getMessage(), ex);
+        } finally {
+            long ran = System.nanoTime() - started;
+            runNanos.add(ran);
+            maxRunNanos.accumulateAndGet(ran, Math::max);
+            active.decrementAndGet();
+            running.release();
+            pending.decrementAndGet();
+        }
+    }
+
+    /** Queue depth, throughput and latency for GET /api/admin/bot-metrics */
+    public Map<String, Object> stats() {
+        long done = completed.sum() + failed.sum();
+        Map<String, Object> out = new LinkedHashMap<>();
+        int inProgress = active.get();
+        out.put("queued", Math.max(0, pending.get() - inProgress));
+        out.put("running", inProgress);
+        out.put("activePhones", lanes.size());
+        out.put("completed", completed.sum());
+        out.put("failed", failed.sum());
+        out.put("rejected", rejected.sum());
+        out.put("avgWaitMs", done > 0 ? waitNanos.sum() / done / 1_000_000.0 : 0.0);
+        out.put("maxWaitMs", maxWaitNanos.get() / 1_000_000.0);
+        out.put("avgRunMs", done > 0 ? runNanos.sum() / done / 1_000_000.0 : 0.0);
+        out.put("maxRunMs", maxRunNanos.get() / 1_000_000.0);
+        return out;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Lets queued messages finish; close() waits for every drainer
+        executor.close();
+    }
+}
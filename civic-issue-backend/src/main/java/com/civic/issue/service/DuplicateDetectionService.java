@@ -3,9 +3,12 @@ package com.civic.issue.service;
 import com.civic.issue.entity.Issue;
 import com.civic.issue.enums.IssueStatus;
 import com.civic.issue.repository.IssueRepository;
+import com.civic.issue.util.GeoGrid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,7 +21,10 @@ import java.util.Optional;
  *  3. Submitted within last 30 days
  *  4. Not already CLOSED
  *
- * No external API — pure Java math + one DB query.
+ * Candidates come from OpenIssueIndex once it is warm, otherwise from the
+ * indexed geo_cell column (see GeoGrid).
+ *
+ * No external API — pure Java math + one indexed DB query.
  */
 @Slf4j
 @Service
@@ -26,12 +32,13 @@ import java.util.Optional;
 public class DuplicateDetectionService {
 
     private final IssueRepository issueRepository;
+    private final OpenIssueIndex  openIssueIndex;
 
     /** Radius in metres within which two issues are considered duplicates */
     private static final double DUPLICATE_RADIUS_METRES = 100.0;
 
     /** Look back this many days when checking for duplicates */
-    private static final int LOOKBACK_DAYS = 30;
+    private static final int LOOKBACK_DAYS = OpenIssueIndex.WINDOW_DAYS;
 
     /**
      * Check if a nearby issue of the same category already exists.
@@ -43,17 +50,22 @@ public class DuplicateDetectionService {
 
         LocalDateTime since = LocalDateTime.now().minusDays(LOOKBACK_DAYS);
 
+        // Hot path: in-memory index already applies radius and age; the
+        // PK load confirms the hit is still open
+        if (openIssueIndex.isWarm()) {
+            for (Long id : openIssueIndex.findWithin(category, latitude, longitude, DUPLICATE_RADIUS_METRES, since)) {
+                Optional<Issue> hit = issueRepository.findById(id)
+                        .filter(issue -> issue.getStatus() != IssueStatus.CLOSED);
+                if (hit.isPresent()) return hit;
+            }
+            return Optional.empty();
+        }
+
         // Fetch recent non-closed issues of the same category
-        // Use a bounding box first (cheap DB filter), then exact Haversine check
-        double latRange = DUPLICATE_RADIUS_METRES / 111_000.0;            // ~0.0009 degrees
-        double lngRange = DUPLICATE_RADIUS_METRES / (111_000.0 * Math.cos(Math.toRadians(latitude)));
+        // Use the grid cells around the point first (indexed lookup), then exact Haversine check
+        List<Long> cells = GeoGrid.cellsWithin(latitude, longitude, DUPLICATE_RADIUS_METRES);
 
-        List<Issue> candidates = issueRepository.findCandidateDuplicates(
-                category,
-                latitude  - latRange, latitude  + latRange,
-                longitude - lngRange, longitude + lngRange,
-                since
-        );
+        List<Issue> candidates = issueRepository.findCandidateDuplicates(category, cells, since);
 
         // Now apply exact Haversine distance check
         return candidates.stream()
@@ -68,6 +80,19 @@ public class DuplicateDetectionService {
                 .findFirst();
     }
 
+    /**
+     * Fills geo_cell for up to {@code limit} issues saved before the column
+     * existed. @return number of rows updated; 0 once the backfill is done.
+     */
+    @Transactional
+    public int backfillGeoCells(int limit) {
+        List<Issue> batch = issueRepository.findMissingGeoCell(PageRequest.of(0, limit));
+        for (Issue issue : batch) {
+            issueRepository.setGeoCell(issue.getId(), GeoGrid.cellId(issue.getLatitude(), issue.getLongitude()));
+        }
+        return batch.size();
+    }
+
     /**
      * Haversine formula — calculates distance in metres between two GPS coordinates.
      * Pure Java math — no external API.
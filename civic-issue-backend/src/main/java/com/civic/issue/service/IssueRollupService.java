@@ -0,0 +1,110 @@
+package com.civic.issue.service;
+
+import com.civic.issue.entity.Issue;
+import com.civic.issue.enums.IssueStatus;
+import com.civic.issue.repository.IssueRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Keeps issue_rollups / issue_resolution_rollups in step with the issues table.
+ *
+ * Callers take a {@link Snapshot} of an issue before changing it and pass it
+ * together with the post-change snapshot to {@link #applyChange}; the old
+ * contribution is subtracted and the new one added. Runs inside the caller's
+ * transaction, so a rolled-back issue write also rolls back its counters.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IssueRollupService {
+
+    private static final int SLA_DAYS = 3;
+
+    private final IssueRollupRepository rollupRepository;
+
+    /** Counter contribution of one issue at a point in time. */
+    public static final class Snapshot {
+        private final LocalDate createdDay;
+        private final String    zone;
+        private final String    category;
+        private final String    status;
+        private final Long      timedDays;     // null while the issue has no end timestamp
+        private final LocalDate resolvedDay;   // null unless RESOLVED/CLOSED with a timestamp
+
+        private Snapshot(LocalDate createdDay, String zone, String category, String status,
+                         Long timedDays, LocalDate resolvedDay) {
+            this.createdDay = createdDay;
+            this.zone = zone;
+            this.category = category;
+            this.status = status;
+            this.timedDays = timedDays;
+            this.resolvedDay = resolvedDay;
+        }
+    }
+
+    /** @return null for issues that are not persisted yet (no createdAt) */
+    public Snapshot snapshot(Issue issue) {
+        if (issue == null || issue.getCreatedAt() == null) return null;
+
+        LocalDateTime end = issue.getResolvedAt() != null ? issue.getResolvedAt() : issue.getClosedAt();
+        Long timedDays = end != null ? Duration.between(issue.getCreatedAt(), end).toDays() : null;
+
+        LocalDate resolvedDay = null;
+        if (issue.getStatus() == IssueStatus.RESOLVED || issue.getStatus() == IssueStatus.CLOSED) {
+            LocalDateTime resolvedTime = issue.getClosedAt() != null ? issue.getClosedAt() : issue.getResolvedAt();
+            if (resolvedTime != null) resolvedDay = resolvedTime.toLocalDate();
+        }
+
+        return new Snapshot(
+                issue.getCreatedAt().toLocalDate(),
+                issue.getZone() != null ? issue.getZone().name() : "",
+                issue.getCategory() != null ? issue.getCategory() : "",
+                issue.getStatus().name(),
+                timedDays,
+                resolvedDay);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyChange(Snapshot before, Snapshot after) {
+        if (before != null) apply(before, -1);
+        if (after != null)  apply(after, +1);
+    }
+
+    private void apply(Snapshot s, int sign) {
+        long timed    = s.timedDays != null ? 1 : 0;
+        long days     = s.timedDays != null ? s.timedDays : 0;
+        long breached = (s.timedDays != null && s.timedDays >= SLA_DAYS) ? 1 : 0;
+
+        rollupRepository.addToRollup(s.createdDay, s.zone, s.category, s.status,
+                sign, sign * timed, sign * days, sign * breached);
+
+        if (s.resolvedDay != null) {
+            rollupRepository.addToResolutionRollup(s.resolvedDay, s.zone, s.category, sign);
+        }
+    }
+
+    /**
+     * Discards and recomputes every rollup row from the issues table.
+     * Use after bulk imports, manual SQL fixes, or on first deployment.
+     */
+    @Transactional
+    public void rebuild() {
+        rollupRepository.clearRollups();
+        rollupRepository.clearResolutionRollups();
+        int rows         = rollupRepository.rebuildRollups();
+        int resolvedRows = rollupRepository.rebuildResolutionRollups();
+        log.info("[Rollups] Rebuilt from issues — {} rollup rows, {} resolution rows", rows, resolvedRows);
+    }
+
+    public boolean isEmpty() {
+        return rollupRepository.count() == 0;
+    }
+}
@@ -2,7 +2,10 @@ package com.civic.issue.service;
 
 import com.civic.issue.dto.request.*;
 import com.civic.issue.dto.response.CommentResponse;
+import com.civic.issue.dto.response.CursorPage;
 import com.civic.issue.dto.response.IssueResponse;
+import com.civic.issue.dto.response.PageResponse;
+import com.civic.issue.enums.Zone;
 
 import java.util.List;
 
@@ -14,8 +17,19 @@ public interface IssueService {
 
     List<IssueResponse> getAllIssues();
 
+    CursorPage<IssueResponse> getIssueFeed(String cursor, int size);
+
+    // Open issues ordered by priority computed at query time, one offset page at a time
+    PageResponse<IssueResponse> getLivePriorityQueue(int page, int size);
+
     List<IssueResponse> getMyIssues(String userEmail);
 
+    // Zone listing for regional admins; null zone means all zones
+    List<IssueResponse> getZoneIssues(Zone zone);
+
+    // Highest-priority open issues of a zone (null zone: all zones), best first
+    List<IssueResponse> getTopZoneIssues(Zone zone, int k);
+
     IssueResponse getIssueById(Long id);
 
     IssueResponse updateIssueStatus(Long id, UpdateStatusRequest request, String userEmail);
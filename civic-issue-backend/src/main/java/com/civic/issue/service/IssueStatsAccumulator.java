@@ -0,0 +1,174 @@
+package com.civic.issue.service;
+
+import com.civic.issue.entity.Issue;
+import com.civic.issue.entity.User;
+import com.civic.issue.enums.IssueStatus;
+import com.civic.issue.enums.Zone;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Single-pass issue statistics.
+ *
+ * Each issue is visited once by {@link #accept}; counts land in primitive
+ * arrays indexed by Zone.ordinal() and IssueStatus.ordinal() (issues with no
+ * zone use the extra last row), so per-zone figures no longer need one stream
+ * pass per zone and status. Not thread-safe — build one per request.
+ */
+public final class IssueStatsAccumulator {
+
+    private static final Zone[]        ZONES    = Zone.values();
+    private static final IssueStatus[] STATUSES = IssueStatus.values();
+    private static final int           NO_ZONE  = ZONES.length;
+
+    private final LocalDateTime now;
+    private final LocalDateTime monthStart;
+    private final int           slaDays;
+
+    private final int[][] statusCounts       = new int[ZONES.length + 1][STATUSES.length];
+    private final int[]   closedThisMonth    = new int[ZONES.length + 1];
+    private final long[]  closedAgeDaysSum   = new long[ZONES.length + 1];
+    private final int[]   closedAgeCount     = new int[ZONES.length + 1];
+    private final Map<String, int[]> categoryCounts = new HashMap<>();
+    private final List<Breach>       breaches       = new ArrayList<>();
+    private int total;
+
+    /** An open issue older than the SLA, with its age at {@code now}. */
+    public static final class Breach {
+        private final Issue issue;
+        private final long  daysPending;
+
+        private Breach(Issue issue, long daysPending) {
+            this.issue = issue;
+            this.daysPending = daysPending;
+        }
+
+        public Issue getIssue() { return issue; }
+        public long getDaysPending() { return daysPending; }
+    }
+
+    /**
+     * @param slaDays open issues pending strictly longer than this are
+     *                collected as breaches
+     */
+    public IssueStatsAccumulator(LocalDateTime now, LocalDateTime monthStart, int slaDays) {
+        this.now = now;
+        this.monthStart = monthStart;
+        this.slaDays = slaDays;
+    }
+
+    public IssueStatsAccumulator acceptAll(Iterable<Issue> issues) {
+        for (Issue issue : issues) accept(issue);
+        return this;
+    }
+
+    public void accept(Issue issue) {
+        int z = issue.getZone() != null ? issue.getZone().ordinal() : NO_ZONE;
+        IssueStatus status = issue.getStatus();
+        LocalDateTime createdAt = issue.getCreatedAt();
+
+        total++;
+        statusCounts[z][status.ordinal()]++;
+
+        if (issue.getCategory() != null) {
+            categoryCounts.computeIfAbsent(issue.getCategory(), k -> new int[1])[0]++;
+        }
+        if (createdAt == null) return;
+
+        long ageDays = ChronoUnit.DAYS.between(createdAt, now);
+        if (status == IssueStatus.CLOSED) {
+            closedAgeDaysSum[z] += ageDays;
+            closedAgeCount[z]++;
+            if (createdAt.isAfter(monthStart)) closedThisMonth[z]++;
+        } else if (ageDays > slaDays) {
+            breaches.add(new Breach(issue, ageDays));
+        }
+    }
+
+    // ── Per zone ──────────────────────────────────────────────────────────────
+
+    public int count(Zone zone, IssueStatus status) {
+        return statusCounts[zone.ordinal()][status.ordinal()];
+    }
+
+    public int total(Zone zone) {
+        int sum = 0;
+        for (int c : statusCounts[zone.ordinal()]) sum += c;
+        return sum;
+    }
+
+    public int closedThisMonth(Zone zone) {
+        return closedThisMonth[zone.ordinal()];
+    }
+
+    /** Mean age of CLOSED issues in days, or null if there are none. */
+    public Double avgClosedAgeDays(Zone zone) {
+        return mean(closedAgeDaysSum[zone.ordinal()], closedAgeCount[zone.ordinal()]);
+    }
+
+    // ── All zones ─────────────────────────────────────────────────────────────
+
+    public int total() {
+        return total;
+    }
+
+    public int count(IssueStatus status) {
+        int sum = 0;
+        for (int[] row : statusCounts) sum += row[status.ordinal()];
+        return sum;
+    }
+
+    public int closedThisMonth() {
+        int sum = 0;
+        for (int c : closedThisMonth) sum += c;
+        return sum;
+    }
+
+    public Double avgClosedAgeDays() {
+        long sum = 0;
+        int count = 0;
+        for (int z = 0; z <= NO_ZONE; z++) {
+            sum += closedAgeDaysSum[z];
+            count += closedAgeCount[z];
+        }
+        return mean(sum, count);
+    }
+
+    /** Breaches, longest pending first. */
+    public List<Breach> breaches() {
+        List<Breach> sorted = new ArrayList<>(breaches);
+        sorted.sort(Comparator.comparingLong(b -> -b.daysPending));
+        return sorted;
+    }
+
+    /** Category → count, highest first, at most {@code limit} entries. */
+    public LinkedHashMap<String, Integer> topCategories(int limit) {
+        LinkedHashMap<String, Integer> top = new LinkedHashMap<>();
+        categoryCounts.entrySet().stream()
+                .sorted((a, b) -> Integer.compare(b.getValue()[0], a.getValue()[0]))
+                .limit(limit)
+                .forEach(e -> top.put(e.getKey(), e.getValue()[0]));
+        return top;
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /**
+     * Zone → regional admin name from one findByRole(REGIONAL_ADMIN) result,
+     * replacing a findByRoleAndZone lookup per zone.
+     */
+    public static Map<Zone, String> adminNamesByZone(List<User> regionalAdmins) {
+        Map<Zone, String> names = new EnumMap<>(Zone.class);
+        for (User admin : regionalAdmins) {
+            if (admin.getZone() != null) names.putIfAbsent(admin.getZone(), admin.getName());
+        }
+        return names;
+    }
+
+    // Rounded to one decimal like the dashboard shows it
+    private static Double mean(long sum, int count) {
+        return count == 0 ? null : Math.round((double) sum / count * 10.0) / 10.0;
+    }
+}
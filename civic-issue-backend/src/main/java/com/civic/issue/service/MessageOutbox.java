@@ -0,0 +1,202 @@
+package com.civic.issue.service;
+
+import com.civic.issue.entity.OutboundMessage;
+import com.civic.issue.enums.MessageChannel;
+import com.civic.issue.enums.NotificationEvent;
+import com.civic.issue.enums.OutboundStatus;
+import com.civic.issue.repository.OutboundMessageRepository;
+import com.civic.issue.scheduler.SchedulerLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Durable queue for outbound WhatsApp/SMS messages.
+ *
+ * sendWhatsApp/sendSms only insert a row into outbound_messages, inside the
+ * caller's transaction when there is one, so a status change commits
+ * without waiting on Twilio and a message is never sent for a change that
+ * rolled back. OutboxWorker is woken after commit to deliver it.
+ *
+ * Issue notifications go through enqueueEvent, keyed so that each (issue,
+ * event) is queued at most once however often the change is replayed.
+ */
+@Slf4j
+@Service
+public class MessageOutbox {
+
+    private static final int PURGE_BATCH = 5000;
+
+    // Plain INSERT: a duplicate event_key raises DuplicateKeyException, and
+    // any other error raises as usual rather than becoming a warning
+    private static final String INSERT_EVENT_SQL = """
+        INSERT INTO outbound_messages
+            (channel, to_phone, body, event_type, event_key, status, attempts, next_attempt_at, created_at)
+        VALUES (?, ?, ?, ?, ?, 'PENDING', 0, ?, ?)
+        """;
+
+    private final OutboundMessageRepository repository;
+    private final JdbcTemplate              jdbcTemplate;
+    private final OutboxWorker              worker;
+    private final TransactionTemplate       transactionTemplate;
+    private final SchedulerLock             schedulerLock;
+    private final Duration                  retention;
+
+    public MessageOutbox(OutboundMessageRepository repository,
+                         JdbcTemplate jdbcTemplate,
+                         OutboxWorker worker,
+                         TransactionTemplate transactionTemplate,
+                         SchedulerLock schedulerLock,
+                         @Value("${app.outbox.retention-days:7}") long retentionDays) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.worker = worker;
+        this.transactionTemplate = transactionTemplate;
+        this.schedulerLock = schedulerLock;
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    public void sendWhatsApp(String toPhone, String body) {
+        enqueue(MessageChannel.WHATSAPP, toPhone, body);
+    }
+
+    public void sendSms(String toPhone, String body) {
+        enqueue(MessageChannel.SMS, toPhone, body);
+    }
+
+    @Transactional
+    public void enqueue(MessageChannel channel, String toPhone, String body) {
+        if (toPhone == null || toPhone.isBlank()) return;
+        LocalDateTime now = LocalDateTime.now();
+        repository.save(OutboundMessage.builder()
+                .channel(channel)
+                .toPhone(toPhone)
+                .body(body)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+        afterCommit(worker::wake);
+    }
+
+    /**
+     * Queues an issue notification unless one with {@code eventKey} was
+     * queued before.
+     *
+     * @return false if this event had already been queued
+     */
+    @Transactional
+    public boolean enqueueEvent(MessageChannel channel, String toPhone, String body,
+                                NotificationEvent event, String eventKey) {
+        if (toPhone == null || toPhone.isBlank()) return false;
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            insertUnderSavepoint(INSERT_EVENT_SQL, channel.name(), toPhone, body,
+                    event.name(), eventKey, now, now);
+        } catch (DuplicateKeyException ex) {
+            log.debug("[Outbox] {} already queued, skipping", eventKey);
+            return false;
+        }
+        afterCommit(worker::wake);
+        return true;
+    }
+
+    /**
+     * Runs the insert on the caller's transaction connection inside a
+     * savepoint, so a failed insert is undone on its own and the caller's
+     * transaction can carry on and commit.
+     */
+    private void insertUnderSavepoint(String sql, Object... args) {
+        jdbcTemplate.execute((ConnectionCallback<Integer>) con -> {
+            Savepoint savepoint = con.setSavepoint();
+            try (PreparedStatement ps = con.prepareStatement(sql)) {
+                for (int i = 0; i < args.length; i++) ps.setObject(i + 1, args[i]);
+                int inserted = ps.executeUpdate();
+                con.releaseSavepoint(savepoint);
+                return inserted;
+            } catch (SQLException ex) {
+                con.rollback(savepoint);
+                throw ex;
+            }
+        });
+    }
+
+    /** Puts every DEAD message back in the queue with a fresh attempt budget. */
+    @Transactional
+    public int requeueDead() {
+        int requeued = repository.requeueDead(LocalDateTime.now());
+        if (requeued > 0) afterCommit(worker::wake);
+        return requeued;
+    }
+
+    /** Queue depth by status, delivery counters and the age of the oldest undelivered message. */
+    @Transactional(readOnly = true)
+    public Map<String, Object> stats() {
+        Map<String, Object> byStatus = new LinkedHashMap<>();
+        for (OutboundStatus status : OutboundStatus.values()) byStatus.put(status.name(), 0L);
+        for (Object[] row : repository.countByStatus()) byStatus.put(((OutboundStatus) row[0]).name(), row[1]);
+
+        List<OutboundStatus> undelivered = List.of(OutboundStatus.PENDING, OutboundStatus.SENDING);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime oldest = repository.oldestCreatedAt(undelivered);
+
+        // Per issue event: how many wait and how long the oldest has waited
+        Map<String, Object> backlog = new LinkedHashMap<>();
+        for (Object[] row : repository.backlogByEvent(undelivered)) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("pending", row[1]);
+            entry.put("lagSeconds", Duration.between((LocalDateTime) row[2], now).toSeconds());
+            backlog.put(((NotificationEvent) row[0]).name(), entry);
+        }
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("byStatus", byStatus);
+        out.put("oldestPendingSeconds", oldest != null ? Duration.between(oldest, now).toSeconds() : 0);
+        out.put("eventBacklog", backlog);
+        out.put("worker", worker.stats());
+        return out;
+    }
+
+    @Scheduled(cron = "0 50 * * * *")
+    public void purgeSent() {
+        schedulerLock.runLocked("outbox-purge", Duration.ofMinutes(10), Duration.ofMinutes(1), this::deleteSent);
+    }
+
+    private void deleteSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int total = 0;
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> repository.deleteSentBefore(cutoff, PURGE_BATCH));
+            total += deleted != null ? deleted : 0;
+        } while (deleted != null && deleted == PURGE_BATCH);
+        if (total > 0) log.info("[Outbox] Purged {} delivered messages", total);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() { action.run(); }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,9 +1,26 @@
 package com.civic.issue.service;
 
+import com.civic.issue.dto.response.CursorPage;
 import com.civic.issue.dto.response.NotificationResponse;
+import com.civic.issue.entity.User;
 
-import java.util.List;
+import java.util.Collection;
 
 public interface NotificationService {
-    List<NotificationResponse> getMyNotifications(String userEmail);
+
+    // Newest first; pass nextCursor back to continue. unreadOnly skips read ones
+    CursorPage<NotificationResponse> getMyNotifications(String userEmail, String cursor, int size, boolean unreadOnly);
+
+    long getUnreadCount(String userEmail);
+
+    // Both return the unread count left afterwards
+    long markRead(String userEmail, Collection<Long> ids);
+
+    long markAllRead(String userEmail);
+
+    // Joins the caller's transaction, so the counter moves with the row
+    void notify(User user, String message);
+
+    // For rows inserted outside notify(); pushed once the caller commits
+    void pushUnreadCounts(Collection<Long> userIds);
 }
@@ -0,0 +1,188 @@
+package com.civic.issue.service;
+
+import com.civic.issue.entity.Issue;
+import com.civic.issue.enums.IssueStatus;
+import com.civic.issue.repository.IssueRepository;
+import com.civic.issue.util.GeoGrid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory spatial index of recent, non-CLOSED issues with coordinates.
+ *
+ * Partitioned by category, then by GeoGrid cell; each cell holds an
+ * immutable array that writers replace wholesale, so radius queries read
+ * without locking. Kept current from the issue write paths (applied after
+ * commit), warmed at startup and trimmed daily. Until warm, callers fall
+ * back to the geo_cell query.
+ *
+ * Only this instance's writes reach the index. With several instances, an
+ * issue reported through another one is missing here until the next
+ * restart, and a duplicate of it would get through. Such deployments set
+ * app.duplicates.index.enabled=false; the index then never warms and every
+ * check uses the geo_cell query.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OpenIssueIndex {
+
+    /** Same window DuplicateDetectionService looks back over */
+    public static final int WINDOW_DAYS = 30;
+
+    private static final Entry[] EMPTY = new Entry[0];
+
+    private final IssueRepository issueRepository;
+
+    // category → cell → entries
+    private final Map<String, Map<Long, Entry[]>> byCategory = new ConcurrentHashMap<>();
+    // issue id → where it currently sits, for moves and removals
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private volatile boolean warm;
+
+    @Value("${app.duplicates.index.enabled:true}")
+    private boolean enabled;
+
+    private static final class Entry {
+        final long          id;
+        final String        category;
+        final long          cell;
+        final double        latitude;
+        final double        longitude;
+        final LocalDateTime createdAt;
+
+        Entry(Issue issue) {
+            this.id = issue.getId();
+            this.category = issue.getCategory();
+            this.latitude = issue.getLatitude();
+            this.longitude = issue.getLongitude();
+            this.cell = GeoGrid.cellId(latitude, longitude);
+            this.createdAt = issue.getCreatedAt();
+        }
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Ids of indexed issues in {@code category} within {@code radiusMetres}
+     * and created at or after {@code since}, newest first.
+     */
+    public List<Long> findWithin(String category, double latitude, double longitude,
+                                 double radiusMetres, LocalDateTime since) {
+        Map<Long, Entry[]> cells = byCategory.get(category);
+        if (cells == null) return List.of();
+
+        List<Entry> hits = new ArrayList<>();
+        for (Long cell : GeoGrid.cellsWithin(latitude, longitude, radiusMetres)) {
+            for (Entry e : cells.getOrDefault(cell, EMPTY)) {
+                if (!e.createdAt.isBefore(since)
+                        && DuplicateDetectionService.haversineMetres(latitude, longitude, e.latitude, e.longitude) <= radiusMetres) {
+                    hits.add(e);
+                }
+            }
+        }
+        hits.sort(Comparator.comparing((Entry e) -> e.createdAt).reversed());
+        return hits.stream().map(e -> e.id).toList();
+    }
+
+    // ── Maintenance ───────────────────────────────────────────────────────────
+
+    /** Re-index an issue after it was created or changed. */
+    public void onSaved(Issue issue) {
+        boolean indexable = issue.getId() != null
+                && issue.getStatus() != IssueStatus.CLOSED
+                && issue.getCategory() != null
+                && issue.getLatitude() != null && issue.getLongitude() != null
+                && issue.getCreatedAt() != null
+                && issue.getCreatedAt().isAfter(LocalDateTime.now().minusDays(WINDOW_DAYS));
+        if (indexable) {
+            Entry entry = new Entry(issue);
+            afterCommit(() -> put(entry));
+        } else if (issue.getId() != null) {
+            Long id = issue.getId();
+            afterCommit(() -> remove(id));
+        }
+    }
+
+    public void onDeleted(Long issueId) {
+        afterCommit(() -> remove(issueId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            log.info("[OpenIssueIndex] Disabled, duplicate checks use DB lookups");
+            return;
+        }
+        try {
+            LocalDateTime since = LocalDateTime.now().minusDays(WINDOW_DAYS);
+            List<Issue> open = issueRepository.findOpenWithLocationSince(since);
+            for (Issue issue : open) {
+                if (issue.getCategory() != null) put(new Entry(issue));
+            }
+            warm = true;
+            log.info("[OpenIssueIndex] Warmed with {} open issues", open.size());
+        } catch (Exception ex) {
+            log.error("[OpenIssueIndex] Warm-up failed, using DB lookups: {}", ex.getMessage());
+        }
+    }
+
+    /** Drops entries that have aged out of the look-back window. */
+    @Scheduled(cron = "0 15 3 * * *")
+    public void evictExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(WINDOW_DAYS);
+        List<Long> expired = byId.values().stream()
+                .filter(e -> e.createdAt.isBefore(cutoff))
+                .map(e -> e.id)
+                .toList();
+        expired.forEach(this::remove);
+        if (!expired.isEmpty()) log.info("[OpenIssueIndex] Evicted {} expired issues", expired.size());
+    }
+
+    // Writers are serialised; readers only ever see complete cell arrays
+    private synchronized void put(Entry entry) {
+        remove(entry.id);
+        byCategory.computeIfAbsent(entry.category, c -> new ConcurrentHashMap<>())
+                .merge(entry.cell, new Entry[]{entry}, (old, add) -> {
+                    Entry[] grown = Arrays.copyOf(old, old.length + 1);
+                    grown[old.length] = entry;
+                    return grown;
+                });
+        byId.put(entry.id, entry);
+    }
+
+    private synchronized void remove(Long id) {
+        Entry old = byId.remove(id);
+        if (old == null) return;
+        Map<Long, Entry[]> cells = byCategory.get(old.category);
+        if (cells == null) return;
+        cells.computeIfPresent(old.cell, (cell, entries) -> {
+            Entry[] kept = Arrays.stream(entries).filter(e -> e.id != id).toArray(Entry[]::new);
+            return kept.length == 0 ? null : kept;
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() { action.run(); }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
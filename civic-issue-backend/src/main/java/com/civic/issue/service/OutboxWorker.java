@@ -0,0 +1,343 @@
+package com.civic.issue.service;
+
+import com.civic.issue.entity.OutboundMessage;
+import com.civic.issue.enums.MessageChannel;
+import com.civic.issue.repository.OutboundMessageRepository;
+import com.civic.issue.util.TokenBucket;
+import com.twilio.exception.ApiException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers outbound_messages to Twilio.
+ *
+ * Each channel is drained on its own: it claims due rows of that channel
+ * (SKIP LOCKED, so several pollers never share a row), marks them SENDING
+ * under a lease and sends them on virtual threads. A channel keeps at most
+ * {@code batch-size} rows in flight, capped at what its bucket can send in
+ * half a lease, and claims more as each send finishes, so a throttled SMS
+ * backlog never holds back WhatsApp replies. Every send first takes a token
+ * from its sender's bucket, and at most {@code workers} Twilio calls run at
+ * once.
+ *
+ * The buckets are per process. The configured rates are each Twilio
+ * number's limit for the whole deployment, so each instance gets an equal
+ * share: rate / {@code app.outbox.instances}. That setting must match the
+ * number of instances running the worker, or the sender limit is exceeded
+ * by the difference. Messages to the same phone are sent one at a time in
+ * claim order, so a conversation's replies arrive in sequence. The outcome
+ * of a send is only recorded while the row is still SENDING under the lease
+ * this worker set; if the lease ran out and the row was reclaimed, the
+ * update matches nothing and the new owner's result stands.
+ *
+ * A failed send is retried with exponential backoff; after
+ * {@code max-attempts}, or on a permanent 4xx rejection, the row is parked
+ * as DEAD for an admin to inspect or requeue.
+ *
+ * Runs on a fixed poll and is woken by MessageOutbox as soon as a new
+ * message commits, so replies are not held back by the poll interval.
+ */
+@Slf4j
+@Service
+public class OutboxWorker {
+
+    private static final int ERROR_LENGTH = 500;
+
+    private final OutboundMessageRepository repository;
+    private final TwilioService             twilioService;
+    private final TransactionTemplate       transactionTemplate;
+
+    private final int      batchSize;
+    private final int      maxAttempts;
+    private final Duration lease;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+
+    private final Semaphore sending;
+    private final Map<MessageChannel, Lane> lanes = new EnumMap<>(MessageChannel.class);
+    // to_phone → claimed messages not yet sent; present only while that phone is being sent to
+    private final Map<String, ArrayDeque<OutboundMessage>> phones = new ConcurrentHashMap<>();
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("outbox-", 0).factory());
+
+    private final LongAdder sent    = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder dead    = new LongAdder();
+    // created → accepted by Twilio, over messages sent since startup
+    private final LongAdder  lagMillis    = new LongAdder();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    public OutboxWorker(OutboundMessageRepository repository,
+                        TwilioService twilioService,
+                        TransactionTemplate transactionTemplate,
+                        @Value("${app.outbox.workers:4}") int workers,
+                        @Value("${app.outbox.batch-size:50}") int batchSize,
+                        @Value("${app.outbox.max-attempts:8}") int maxAttempts,
+                        @Value("${app.outbox.lease-seconds:300}") long leaseSeconds,
+                        @Value("${app.outbox.backoff-base-seconds:5}") long backoffBaseSeconds,
+                        @Value("${app.outbox.backoff-max-seconds:3600}") long backoffMaxSeconds,
+                        @Value("${app.outbox.rate.whatsapp-per-second:80}") double whatsappRate,
+                        @Value("${app.outbox.rate.sms-per-second:1}") double smsRate,
+                        @Value("${app.outbox.instances:1}") int instances) {
+        this.repository = repository;
+        this.twilioService = twilioService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.backoffBase = Duration.ofSeconds(backoffBaseSeconds);
+        this.backoffMax = Duration.ofSeconds(backoffMaxSeconds);
+        this.sending = new Semaphore(workers);
+        int share = Math.max(1, instances);
+        lanes.put(MessageChannel.WHATSAPP, new Lane(MessageChannel.WHATSAPP, whatsappRate / share));
+        lanes.put(MessageChannel.SMS, new Lane(MessageChannel.SMS, smsRate / share));
+    }
+
+    // Hands off to virtual threads so rate-limited sends never hold the scheduler
+    @Scheduled(fixedDelayString = "${app.outbox.poll-ms:2000}")
+    public void poll() {
+        wake();
+    }
+
+    /** Starts each channel's pass in the background, or asks a running one to go again. */
+    public void wake() {
+        lanes.values().forEach(Lane::wake);
+    }
+
+    // ── One channel ───────────────────────────────────────────────────────────
+
+    private final class Lane {
+
+        final MessageChannel channel;
+        final TokenBucket    bucket;
+        final int            capacity;
+        // Free in-flight slots; a claimed row holds one until its send is recorded
+        final Semaphore      window;
+
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean rerun    = new AtomicBoolean();
+
+        Lane(MessageChannel channel, double ratePerSecond) {
+            this.channel = channel;
+            this.bucket = new TokenBucket(ratePerSecond, (int) Math.ceil(ratePerSecond));
+            // No more in flight than the bucket lets out in half a lease, so a
+            // claimed row is sent well before its lease expires and another
+            // instance reclaims it
+            this.capacity = (int) Math.max(1, Math.min(batchSize, ratePerSecond * lease.toSeconds() / 2));
+            this.window = new Semaphore(capacity);
+        }
+
+        void wake() {
+            if (draining.get()) {
+                rerun.set(true);
+            } else {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            if (!draining.compareAndSet(false, true)) {
+                rerun.set(true);
+                return;
+            }
+            try {
+                do {
+                    rerun.set(false);
+                    while (claimAndSend()) {
+                        // every free slot was filled: more may be due
+                    }
+                } while (rerun.get());
+            } catch (InterruptedException ex) {
+                // Shutting down; claimed rows are retried once their lease expires
+                Thread.currentThread().interrupt();
+            } catch (Exception ex) {
+                log.error("[Outbox] {} drain failed: {}", channel, ex.getMessage(), ex);
+            } finally {
+                draining.set(false);
+            }
+        }
+
+        // Waits for a free slot, claims up to the free slots and hands the
+        // rows off without waiting for them; true if every slot was filled
+        private boolean claimAndSend() throws InterruptedException {
+            window.acquire();
+            int free = 1 + window.drainPermits();
+            List<OutboundMessage> claimed;
+            try {
+                claimed = claim(channel, free);
+            } catch (RuntimeException ex) {
+                window.release(free);
+                throw ex;
+            }
+            window.release(free - claimed.size());
+            claimed.forEach(OutboxWorker.this::enqueue);
+            return claimed.size() == free;
+        }
+
+        int inFlight() {
+            return capacity - window.availablePermits();
+        }
+    }
+
+    private List<OutboundMessage> claim(MessageChannel channel, int limit) {
+        List<OutboundMessage> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = repository.lockDue(channel.name(), now, limit);
+            if (ids.isEmpty()) return List.<OutboundMessage>of();
+            // Whole seconds, so the value read back below is exactly the stored lease
+            repository.claim(ids, now.plus(lease).truncatedTo(ChronoUnit.SECONDS));
+            // findAllById does not keep the order ids were locked in
+            List<OutboundMessage> rows = new ArrayList<>(repository.findAllById(ids));
+            rows.sort(Comparator.comparing(OutboundMessage::getId));
+            return rows;
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    // ── Per-phone ordering ────────────────────────────────────────────────────
+
+    // Queues a claimed message behind earlier ones to the same phone
+    private void enqueue(OutboundMessage message) {
+        String phone = message.getToPhone();
+        boolean[] startPhone = new boolean[1];
+        phones.compute(phone, (key, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                startPhone[0] = true;
+            }
+            queue.add(message);
+            return queue;
+        });
+        if (startPhone[0]) executor.execute(() -> drainPhone(phone));
+    }
+
+    private void drainPhone(String phone) {
+        while (true) {
+            OutboundMessage[] next = new OutboundMessage[1];
+            // Take the head, or retire the queue when it is empty so the next
+            // claim for this phone starts a fresh sender
+            phones.computeIfPresent(phone, (key, queue) -> {
+                next[0] = queue.poll();
+                return next[0] == null ? null : queue;
+            });
+            if (next[0] == null) return;
+            Lane lane = lanes.get(next[0].getChannel());
+            try {
+                send(lane, next[0]);
+            } finally {
+                lane.window.release();
+            }
+        }
+    }
+
+    private void send(Lane lane, OutboundMessage message) {
+        try {
+            // Wait for the sender's rate first, so an SMS backlog does not
+            // hold worker slots that WhatsApp messages could use
+            lane.bucket.acquire();
+            String sid;
+            sending.acquire();
+            try {
+                sid = twilioService.deliver(message.getChannel(), message.getToPhone(), message.getBody());
+            } finally {
+                sending.release();
+            }
+            LocalDateTime sentAt = LocalDateTime.now();
+            Integer marked = transactionTemplate.execute(status ->
+                    repository.markSent(message.getId(), message.getNextAttemptAt(), sid, sentAt));
+            if (marked == null || marked == 0) {
+                log.warn("[Outbox] Message {} was sent after its lease ran out; it may be sent again", message.getId());
+            }
+            sent.increment();
+            long lag = Duration.between(message.getCreatedAt(), sentAt).toMillis();
+            lagMillis.add(lag);
+            maxLagMillis.accumulateAndGet(lag, Math::max);
+        } catch (InterruptedException ex) {
+            // Shutting down; the lease expires and the row is retried later
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            fail(message, ex);
+        }
+    }
+
+    private void fail(OutboundMessage message, Exception ex) {
+        // Loaded after the claim, so this attempt is already counted
+        int attempts = message.getAttempts();
+        String error = truncate(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+        // The claim set next_attempt_at to the lease; a row whose lease ran out
+        // belongs to whoever reclaimed it
+        LocalDateTime claimedLease = message.getNextAttemptAt();
+        if (isPermanent(ex) || attempts >= maxAttempts) {
+            Integer marked = transactionTemplate.execute(status -> repository.markDead(message.getId(), claimedLease, error));
+            if (marked == null || marked == 0) {
+                log.warn("[Outbox] Message {} lost its lease before it could be marked dead", message.getId());
+                return;
+            }
+            dead.increment();
+            log.error("[Outbox] Message {} to {} is dead after {} attempts: {}",
+                    message.getId(), message.getToPhone(), attempts, error);
+        } else {
+            LocalDateTime next = LocalDateTime.now().plus(backoff(attempts));
+            Integer marked = transactionTemplate.execute(status -> repository.markRetry(message.getId(), claimedLease, next, error));
+            if (marked == null || marked == 0) {
+                log.warn("[Outbox] Message {} lost its lease before it could be rescheduled", message.getId());
+                return;
+            }
+            retried.increment();
+            log.warn("[Outbox] Message {} failed (attempt {}), retrying at {}: {}",
+                    message.getId(), attempts, next, error);
+        }
+    }
+
+    /** base × 2^(attempt-1), capped, with ±20% jitter so retries don't move in lockstep. */
+    private Duration backoff(int attempt) {
+        long base = backoffBase.toMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.min(base, backoffMax.toMillis());
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (capped * jitter));
+    }
+
+    // A 4xx other than 429 (bad number, unsubscribed recipient, ...) will not
+    // succeed on retry; throttling and server errors might
+    private static boolean isPermanent(Exception ex) {
+        if (!(ex instanceof ApiException api) || api.getStatusCode() == null) return false;
+        int code = api.getStatusCode();
+        return code >= 400 && code < 500 && code != 429;
+    }
+
+    private static String truncate(String s) {
+        return s.length() > ERROR_LENGTH ? s.substring(0, ERROR_LENGTH) : s;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("sent", sent.sum());
+        out.put("retried", retried.sum());
+        out.put("dead", dead.sum());
+        out.put("avgLagMs", sent.sum() > 0 ? lagMillis.sum() / sent.sum() : 0);
+        out.put("maxLagMs", maxLagMillis.get());
+        Map<String, Object> inFlight = new LinkedHashMap<>();
+        lanes.forEach((channel, lane) -> inFlight.put(channel.name(), lane.inFlight()));
+        out.put("inFlight", inFlight);
+        out.put("draining", lanes.values().stream().anyMatch(lane -> lane.draining.get()));
+        return out;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
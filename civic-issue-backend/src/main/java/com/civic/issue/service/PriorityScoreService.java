@@ -6,6 +6,10 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Calculates a priority score (0–100) for each issue.
@@ -17,31 +21,55 @@ import java.time.temporal.ChronoUnit;
  *   Age:        up to 30 points (older issues get higher score)
  *   Status:     REOPENED +20, IN_PROGRESS +5, PENDING +10
  *   Category:   safety-critical categories +10
+ *
+ * The constants below are the single definition of the formula: calculate()
+ * evaluates it in Java and sqlExpression() renders the same terms as a MySQL
+ * expression, so the live-ordered admin queue ranks exactly as the stored
+ * scores would if they were recomputed at the same instant.
  */
 @Service
 public class PriorityScoreService {
 
-    private static final int    MAX_UPVOTE_SCORE = 30;
-    private static final int    MAX_AGE_SCORE    = 30;
+    private static final double BASE_SCORE        = 20.0;
+    private static final double MAX_SCORE         = 100.0;
+    private static final int    MAX_UPVOTE_SCORE  = 30;
+    private static final int    MAX_AGE_SCORE     = 30;
     private static final int    POINTS_PER_UPVOTE = 3;
-    private static final int    MAX_UPVOTES       = 10;
     private static final int    MAX_AGE_DAYS      = 14;
+    private static final int    CATEGORY_BONUS    = 10;
+
+    private static final Map<IssueStatus, Integer> STATUS_BONUS = new EnumMap<>(Map.of(
+            IssueStatus.REOPENED,    20,
+            IssueStatus.PENDING,     10,
+            IssueStatus.IN_PROGRESS, 5));
 
-    private static final java.util.Set<String> CRITICAL_CATEGORIES =
-            java.util.Set.of("Pothole", "Waterlogging", "Sewage",
-                             "Drainage", "Fallen Tree", "Water Leakage");
+    private static final Set<String> CRITICAL_CATEGORIES =
+            Set.of("Pothole", "Waterlogging", "Sewage",
+                   "Drainage", "Fallen Tree", "Water Leakage");
 
     public double calculate(Issue issue) {
-        double score = 20.0; // base
+        return calculate(
+                issue.getUpvoteCount() != null ? issue.getUpvoteCount() : 0,
+                issue.getCreatedAt(), issue.getStatus(), issue.getCategory());
+    }
+
+    /** Same formula from raw column values, for callers that don't load the entity. */
+    public double calculate(int upvotes, LocalDateTime createdAt, IssueStatus status, String category) {
+        return calculate(upvotes, createdAt, status, category, LocalDateTime.now());
+    }
+
+    /** Score as of {@code now}; pass the instant bound into sqlExpression() to compare. */
+    public double calculate(int upvotes, LocalDateTime createdAt, IssueStatus status,
+                            String category, LocalDateTime now) {
+        double score = BASE_SCORE;
 
         // ── Upvotes ───────────────────────────────────────────────────────────
-        int upvotes = issue.getUpvoteCount() != null ? issue.getUpvoteCount() : 0;
         double upvoteScore = Math.min(upvotes * POINTS_PER_UPVOTE, MAX_UPVOTE_SCORE);
         score += upvoteScore;
 
         // ── Age of issue ─────────────────────────────────────────────────────
-        if (issue.getCreatedAt() != null) {
-            long days = ChronoUnit.DAYS.between(issue.getCreatedAt(), LocalDateTime.now());
+        if (createdAt != null) {
+            long days = ChronoUnit.DAYS.between(createdAt, now);
             double ageScore = Math.min(
                     (double) days / MAX_AGE_DAYS * MAX_AGE_SCORE,
                     MAX_AGE_SCORE);
@@ -49,16 +77,47 @@ public class PriorityScoreService {
         }
 
         // ── Status bonus ─────────────────────────────────────────────────────
-        if (issue.getStatus() == IssueStatus.REOPENED)    score += 20;
-        else if (issue.getStatus() == IssueStatus.PENDING)    score += 10;
-        else if (issue.getStatus() == IssueStatus.IN_PROGRESS) score += 5;
+        if (status != null) {
+            score += STATUS_BONUS.getOrDefault(status, 0);
+        }
 
         // ── Category bonus ───────────────────────────────────────────────────
-        if (issue.getCategory() != null
-                && CRITICAL_CATEGORIES.contains(issue.getCategory())) {
-            score += 10;
+        if (category != null
+                && CRITICAL_CATEGORIES.contains(category)) {
+            score += CATEGORY_BONUS;
         }
 
-        return Math.min(score, 100.0); // cap at 100
+        return Math.min(score, MAX_SCORE); // cap at 100
+    }
+
+    /**
+     * The formula as a MySQL expression over the issues table aliased
+     * {@code alias}, with the current instant bound as {@code :now}.
+     *
+     * TIMESTAMPDIFF(DAY, ...) counts whole days like ChronoUnit.DAYS. The
+     * age term is written with a decimal literal so it never falls back to
+     * integer division; it is DECIMAL in MySQL, so it can differ from the
+     * double in the fourth decimal place. Every other term is an integer and
+     * whole days move the age term by 30/14, so the ordering is unaffected.
+     * PriorityScoreServiceTest checks the two stay equal.
+     */
+    public static String sqlExpression(String alias) {
+        String days = "TIMESTAMPDIFF(DAY, " + alias + ".created_at, :now)";
+
+        String statusCase = STATUS_BONUS.entrySet().stream()
+                .map(e -> "WHEN '" + e.getKey().name() + "' THEN " + e.getValue())
+                .collect(Collectors.joining(" ", "CASE " + alias + ".status ", " ELSE 0 END"));
+
+        String categories = CRITICAL_CATEGORIES.stream()
+                .sorted()
+                .map(c -> "'" + c.replace("'", "''") + "'")
+                .collect(Collectors.joining(", "));
+
+        return "LEAST(" + BASE_SCORE
+                + " + LEAST(COALESCE(" + alias + ".upvote_count, 0) * " + POINTS_PER_UPVOTE + ", " + MAX_UPVOTE_SCORE + ")"
+                + " + COALESCE(LEAST(" + days + " * " + (double) MAX_AGE_SCORE + " / " + MAX_AGE_DAYS + ", " + MAX_AGE_SCORE + "), 0)"
+                + " + " + statusCase
+                + " + CASE WHEN " + alias + ".category IN (" + categories + ") THEN " + CATEGORY_BONUS + " ELSE 0 END"
+                + ", " + MAX_SCORE + ")";
     }
 }
@@ -0,0 +1,367 @@
+package com.civic.issue.service;
+
+import com.civic.issue.entity.Issue;
+import com.civic.issue.entity.User;
+import com.civic.issue.enums.RoleType;
+import com.civic.issue.enums.Zone;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * In-process fan-out of notifications and issue status changes to
+ * Server-Sent Events streams.
+ *
+ * A stream is a servlet async request, so an idle connection holds no
+ * thread. Each subscriber has its own queue drained on a virtual thread,
+ * so a slow client delays only itself; one that falls {@code max-queued}
+ * events behind is disconnected and catches up on reconnect. A comment
+ * line every {@code heartbeat-ms} keeps proxies from closing quiet streams.
+ *
+ * Published events are numbered and the last {@code replay-size} are kept,
+ * so a client reconnecting with Last-Event-ID gets what it missed. Ids
+ * carry this process's start time; an id from another process, or one
+ * older than the buffer, gets a "resync" event telling the client to
+ * refetch instead. Events are published after the surrounding transaction
+ * commits and reach only streams connected to this instance.
+ *
+ * A stream keeps the role and zone the user had when it connected. With
+ * stateless tokens it lives no longer than one token, and it is ended as
+ * soon as the user's role or zone changes or the account is deleted, so
+ * routing never runs on claims the user has lost.
+ */
+@Slf4j
+@Service
+public class PushEventBus {
+
+    public static final String NOTIFICATION = "notification";
+    public static final String UNREAD       = "unread";
+    public static final String ISSUE_STATUS = "issue-status";
+    public static final String RESYNC       = "resync";
+
+    private static final long RECONNECT_MS = 3000;
+
+    // users: direct recipients; zone: also every ADMIN and that zone's REGIONAL_ADMINs
+    private record Event(long seq, String type, Object data, Set<Long> users, Zone zone) {}
+
+    private final long     timeoutMs;
+    private final int      replaySize;
+    private final int      maxQueued;
+    private final String   epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // Guards seq, the replay buffer and registration, so replay and live
+    // delivery never overlap or skip an event
+    private final ReentrantLock       lock   = new ReentrantLock();
+    private final ArrayDeque<Event>   replay = new ArrayDeque<>();
+    private long seq;
+
+    private final Map<Long, Set<Subscriber>> byUser   = new ConcurrentHashMap<>();
+    private final Map<Zone, Set<Subscriber>> regional = new ConcurrentHashMap<>();
+    private final Set<Subscriber>            admins   = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("push-", 0).factory());
+
+    private final AtomicInteger connected = new AtomicInteger();
+    private final LongAdder published  = new LongAdder();
+    private final LongAdder replayed   = new LongAdder();
+    private final LongAdder resyncs    = new LongAdder();
+    private final LongAdder slowClosed = new LongAdder();
+    private final LongAdder revoked    = new LongAdder();
+
+    public PushEventBus(@Value("${app.push.timeout-minutes:30}") long timeoutMinutes,
+                        @Value("${app.push.replay-size:5000}") int replaySize,
+                        @Value("${app.push.max-queued:256}") int maxQueued,
+                        @Value("${app.jwt.stateless:false}") boolean statelessJwt,
+                        @Value("${app.jwt.stateless-expiration-ms:900000}") long tokenLifetimeMs) {
+        // The token is checked only at connect; reconnecting presents a current one
+        this.timeoutMs = statelessJwt ? Math.min(timeoutMinutes * 60_000, tokenLifetimeMs) : timeoutMinutes * 60_000;
+        this.replaySize = replaySize;
+        this.maxQueued = maxQueued;
+    }
+
+    // ── Subscribing ──────────────────────────────────────────────────────────
+
+    /**
+     * Opens a stream for {@code user}, first replaying what was published
+     * after {@code lastEventId} when that is still buffered.
+     */
+    public SseEmitter subscribe(User user, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber sub = new Subscriber(user.getId(), user.getRole(), user.getZone(), emitter);
+        emitter.onCompletion(sub::close);
+        emitter.onTimeout(sub::close);
+        emitter.onError(ex -> sub.close());
+
+        sub.offer(SseEmitter.event().reconnectTime(RECONNECT_MS).comment("connected"));
+        lock.lock();
+        try {
+            if (lastEventId != null && !lastEventId.isBlank()) replayTo(sub, lastEventId);
+            register(sub);
+        } finally {
+            lock.unlock();
+        }
+        return emitter;
+    }
+
+    private void replayTo(Subscriber sub, String lastEventId) {
+        long after = parseSeq(lastEventId);
+        Event oldest = replay.peekFirst();
+        boolean covered = after >= 0 && after <= seq
+                && (oldest == null ? after == seq : after >= oldest.seq() - 1);
+        List<Event> missed = new ArrayList<>();
+        if (covered) {
+            for (Event e : replay) {
+                if (e.seq() > after && matches(sub, e)) missed.add(e);
+            }
+        }
+        // A refetch is cheaper than a backlog the queue would cut off anyway
+        if (!covered || missed.size() >= maxQueued) {
+            resyncs.increment();
+            sub.offer(SseEmitter.event().id(eventId(seq)).name(RESYNC).data(Map.of("reason", "gap")));
+            return;
+        }
+        for (Event e : missed) sub.offer(toSse(e));
+        replayed.add(missed.size());
+    }
+
+    // -1 unless the id was issued by this process
+    private long parseSeq(String lastEventId) {
+        int dash = lastEventId.indexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) return -1;
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private void register(Subscriber sub) {
+        byUser.computeIfAbsent(sub.userId, id -> ConcurrentHashMap.newKeySet()).add(sub);
+        if (sub.role == RoleType.ADMIN) {
+            admins.add(sub);
+        } else if (sub.role == RoleType.REGIONAL_ADMIN && sub.zone != null) {
+            regional.computeIfAbsent(sub.zone, z -> ConcurrentHashMap.newKeySet()).add(sub);
+        }
+        connected.incrementAndGet();
+    }
+
+    private void unregister(Subscriber sub) {
+        Set<Subscriber> own = byUser.get(sub.userId);
+        if (own != null) {
+            own.remove(sub);
+            if (own.isEmpty()) byUser.remove(sub.userId, own);
+        }
+        admins.remove(sub);
+        if (sub.zone != null) {
+            Set<Subscriber> zoneSubs = regional.get(sub.zone);
+            if (zoneSubs != null) zoneSubs.remove(sub);
+        }
+        connected.decrementAndGet();
+    }
+
+    // ── Account changes ──────────────────────────────────────────────────────
+    // Called by UserChangeListener after the change commits. A closed client
+    // reconnects, is authorised afresh and resumes from its last event id.
+
+    /** Ends the user's streams that were opened under another role or zone. */
+    public void accountChanged(long userId, RoleType role, Zone zone) {
+        closeWhere(userId, sub -> sub.role != role || sub.zone != zone);
+    }
+
+    /** Ends every stream of a deleted user. */
+    public void disconnect(long userId) {
+        closeWhere(userId, sub -> true);
+    }
+
+    private void closeWhere(long userId, Predicate<Subscriber> stale) {
+        Set<Subscriber> own = byUser.get(userId);
+        if (own == null) return;
+        for (Subscriber sub : own) {
+            if (!stale.test(sub)) continue;
+            revoked.increment();
+            sub.close();
+            sub.emitter.complete();
+        }
+    }
+
+    // ── Publishing ───────────────────────────────────────────────────────────
+
+    public void publishToUser(Long userId, String type, Object data) {
+        publish(type, data, Set.of(userId), null);
+    }
+
+    /** Tells the reporter, the zone's regional admins and every admin. */
+    public void issueStatusChanged(Issue issue) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("issueId", issue.getId());
+        data.put("title", issue.getTitle());
+        data.put("status", issue.getStatus());
+        data.put("zone", issue.getZone());
+        data.put("at", LocalDateTime.now());
+        Set<Long> users = issue.getCreatedBy() != null ? Set.of(issue.getCreatedBy().getId()) : Set.of();
+        publish(ISSUE_STATUS, data, users, issue.getZone() != null ? issue.getZone() : Zone.UNASSIGNED);
+    }
+
+    private void publish(String type, Object data, Set<Long> users, Zone zone) {
+        afterCommit(() -> {
+            lock.lock();
+            try {
+                Event event = new Event(++seq, type, data, users, zone);
+                replay.addLast(event);
+                if (replay.size() > replaySize) replay.removeFirst();
+                for (Subscriber sub : targets(event)) sub.offer(toSse(event));
+            } finally {
+                lock.unlock();
+            }
+            published.increment();
+        });
+    }
+
+    private Set<Subscriber> targets(Event e) {
+        Set<Subscriber> out = new HashSet<>();
+        for (Long userId : e.users()) {
+            Set<Subscriber> own = byUser.get(userId);
+            if (own != null) out.addAll(own);
+        }
+        if (e.zone() != null) {
+            out.addAll(admins);
+            Set<Subscriber> zoneSubs = regional.get(e.zone());
+            if (zoneSubs != null) out.addAll(zoneSubs);
+        }
+        return out;
+    }
+
+    private static boolean matches(Subscriber sub, Event e) {
+        if (e.users().contains(sub.userId)) return true;
+        if (e.zone() == null) return false;
+        return sub.role == RoleType.ADMIN
+                || (sub.role == RoleType.REGIONAL_ADMIN && sub.zone == e.zone());
+    }
+
+    private SseEmitter.SseEventBuilder toSse(Event e) {
+        return SseEmitter.event().id(eventId(e.seq())).name(e.type()).data(e.data(), MediaType.APPLICATION_JSON);
+    }
+
+    private String eventId(long n) {
+        return epoch + "-" + n;
+    }
+
+    @Scheduled(fixedDelayString = "${app.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Set<Subscriber> subs : byUser.values()) {
+            for (Subscriber sub : subs) sub.offer(SseEmitter.event().comment("hb"));
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("connected", connected.get());
+        out.put("users", byUser.size());
+        out.put("published", published.sum());
+        out.put("replayed", replayed.sum());
+        out.put("resyncs", resyncs.sum());
+        out.put("slowClosed", slowClosed.sum());
+        out.put("revoked", revoked.sum());
+        out.put("lastEventId", eventId(seq));
+        return out;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (Set<Subscriber> subs : byUser.values()) {
+            for (Subscriber sub : subs) sub.emitter.complete();
+        }
+        executor.shutdownNow();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() { action.run(); }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // ── One stream ───────────────────────────────────────────────────────────
+
+    private final class Subscriber {
+
+        final long       userId;
+        final RoleType   role;
+        final Zone       zone;
+        final SseEmitter emitter;
+
+        private final Queue<SseEmitter.SseEventBuilder> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued   = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed   = new AtomicBoolean();
+
+        Subscriber(long userId, RoleType role, Zone zone, SseEmitter emitter) {
+            this.userId = userId;
+            this.role = role;
+            this.zone = zone;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) return;
+            if (queued.incrementAndGet() > maxQueued) {
+                // Too far behind; it reconnects and resumes from its last id
+                slowClosed.increment();
+                close();
+                emitter.complete();
+                return;
+            }
+            queue.add(event);
+            if (!draining.get()) executor.execute(this::drain);
+        }
+
+        private void drain() {
+            if (!draining.compareAndSet(false, true)) return;
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    emitter.send(event);
+                }
+            } catch (Exception ex) {
+                // Client went away; the emitter's callbacks unregister it
+                close();
+                emitter.completeWithError(ex);
+            } finally {
+                draining.set(false);
+            }
+            // Something may have been queued after the last poll
+            if (!closed.get() && !queue.isEmpty()) executor.execute(this::drain);
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                unregister(this);
+                queue.clear();
+            }
+        }
+    }
+}
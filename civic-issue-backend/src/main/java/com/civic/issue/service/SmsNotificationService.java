@@ -2,22 +2,32 @@ package com.civic.issue.service;
 
 import com.civic.issue.entity.Issue;
 import com.civic.issue.entity.User;
+import com.civic.issue.enums.MessageChannel;
+import com.civic.issue.enums.NotificationEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+/**
+ * Issue status WhatsApp/SMS messages.
+ *
+ * Call these inside the transaction that makes the change: each message is
+ * written to the outbox in that transaction (so it is sent only if the
+ * change commits) under an (issue, event, reopen cycle) key, so the same
+ * event is never queued twice.
+ */
 @Service
 public class SmsNotificationService {
 
     private static final Logger log = LoggerFactory.getLogger(SmsNotificationService.class);
-    private final TwilioService twilioService;
+    private final MessageOutbox outbox;
 
     @Value("${app.frontend.url:http://localhost:3000}")
     private String frontendUrl;
 
-    public SmsNotificationService(TwilioService twilioService) {
-        this.twilioService = twilioService;
+    public SmsNotificationService(MessageOutbox outbox) {
+        this.outbox = outbox;
     }
 
     public void notifyIssueSubmitted(Issue issue) {
@@ -30,7 +40,7 @@ public class SmsNotificationService {
             "We will notify you when an admin starts work.",
             issue.getId(), truncate(issue.getTitle()), frontendUrl, issue.getId()
         );
-        sendToUser(reporter, msg);
+        sendToUser(reporter, msg, issue, NotificationEvent.ISSUE_SUBMITTED);
     }
 
     public void notifyInProgress(Issue issue) {
@@ -44,7 +54,7 @@ public class SmsNotificationService {
             "Track: %s/issues/%d",
             issue.getId(), truncate(issue.getTitle()), adminName, frontendUrl, issue.getId()
         );
-        sendToUser(reporter, msg);
+        sendToUser(reporter, msg, issue, NotificationEvent.IN_PROGRESS);
     }
 
     public void notifyResolved(Issue issue) {
@@ -58,7 +68,7 @@ public class SmsNotificationService {
             "Reply *YES* to confirm fixed, or *NO* to reopen.",
             issue.getId(), truncate(issue.getTitle()), frontendUrl, issue.getId()
         );
-        sendToUser(reporter, msg);
+        sendToUser(reporter, msg, issue, NotificationEvent.RESOLVED);
     }
 
     public void notifyClosed(Issue issue) {
@@ -71,7 +81,7 @@ public class SmsNotificationService {
             "Report another: %s",
             issue.getId(), truncate(issue.getTitle()), frontendUrl
         );
-        sendToUser(reporter, msg);
+        sendToUser(reporter, msg, issue, NotificationEvent.CLOSED);
     }
 
     public void notifyAdminReopened(Issue issue) {
@@ -83,11 +93,11 @@ public class SmsNotificationService {
                 : "";
 
         String msg = String.format(
-            "⚠️ *CivicPulse*: Issue #%d was *REOPENED* by reporter.%s\n" +
+            "⚠️ *CivicPulse*: Issue #%d '%s' was *REOPENED* by reporter.%s\n" +
             "View: %s/issues/%d",
             issue.getId(), truncate(issue.getTitle()), note, frontendUrl, issue.getId()
         );
-        sendToUser(admin, msg);
+        sendToUser(admin, msg, issue, NotificationEvent.ADMIN_REOPENED);
     }
 
     public void notifyAdminNewIssue(Issue issue) {
@@ -100,18 +110,20 @@ public class SmsNotificationService {
             "View: %s/admin",
             issue.getCategory(), issue.getId(), truncate(issue.getTitle()), frontendUrl
         );
-        sendToUser(admin, msg);
+        sendToUser(admin, msg, issue, NotificationEvent.ADMIN_NEW_ISSUE);
     }
 
-    private void sendToUser(User user, String message) {
+    private void sendToUser(User user, String message, Issue issue, NotificationEvent event) {
         // Detect if user created account via WhatsApp
         boolean isWhatsAppUser = user.getEmail() != null && user.getEmail().endsWith("@whatsapp.bot");
         
-        if (isWhatsAppUser) {
-            twilioService.sendWhatsApp(user.getPhone(), message);
-        } else {
-            twilioService.sendSms(user.getPhone(), message);
-        }
+        MessageChannel channel = isWhatsAppUser ? MessageChannel.WHATSAPP : MessageChannel.SMS;
+        outbox.enqueueEvent(channel, user.getPhone(), message, event, eventKey(issue, event));
+    }
+
+    private static String eventKey(Issue issue, NotificationEvent event) {
+        int cycle = issue.getReopenCount() != null ? issue.getReopenCount() : 0;
+        return "issue:" + issue.getId() + ":" + event.name() + ":" + cycle;
     }
 
     private boolean noPhone(User user) {
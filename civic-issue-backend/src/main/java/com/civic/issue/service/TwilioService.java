@@ -1,5 +1,6 @@
 package com.civic.issue.service;
 
+import com.civic.issue.enums.MessageChannel;
 import com.twilio.Twilio;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
@@ -36,36 +37,20 @@ public class TwilioService {
         }
     }
 
-    public void sendWhatsApp(String toPhone, String body) {
-        log.debug("Attempting to send WhatsApp message to: {}", toPhone);
-        try {
-            Message msg = Message.creator(
-                    new PhoneNumber("whatsapp:" + toPhone),
-                    new PhoneNumber(whatsappFrom),
-                    body
-            ).create();
-            log.info("🚀 WhatsApp SENT successfully to {} | SID: {}", toPhone, msg.getSid());
-        } catch (Exception e) {
-            log.error("❌ WhatsApp SEND FAILED to {}: {}", toPhone, e.getMessage());
-        }
-    }
-
-    public void sendSms(String toPhone, String body) {
-        try {
-            Message msg = Message.creator(
-                    new PhoneNumber(toPhone),
-                    new PhoneNumber(smsFrom),
-                    body
-            ).create();
-            log.info("🚀 SMS SENT successfully to {} | SID: {}", toPhone, msg.getSid());
-        } catch (Exception e) {
-            log.error("❌ SMS SEND FAILED to {}: {}", toPhone, e.getMessage());
-        }
-    }
-
-    public void notify(String phone, boolean hasWhatsApp, String message) {
-        if (phone == null || phone.isBlank()) return;
-        if (hasWhatsApp) sendWhatsApp(phone, message);
-        else             sendSms(phone, message);
+    /**
+     * Hands one message to Twilio and blocks for the API round trip.
+     * Failures propagate so OutboxWorker can decide whether to retry.
+     *
+     * @return the Twilio message SID
+     */
+    public String deliver(MessageChannel channel, String toPhone, String body) {
+        boolean whatsApp = channel == MessageChannel.WHATSAPP;
+        Message msg = Message.creator(
+                new PhoneNumber(whatsApp ? "whatsapp:" + toPhone : toPhone),
+                new PhoneNumber(whatsApp ? whatsappFrom : smsFrom),
+                body
+        ).create();
+        log.info("🚀 {} SENT successfully to {} | SID: {}", whatsApp ? "WhatsApp" : "SMS", toPhone, msg.getSid());
+        return msg.getSid();
     }
 }
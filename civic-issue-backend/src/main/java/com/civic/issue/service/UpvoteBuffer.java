@@ -0,0 +1,384 @@
+package com.civic.issue.service;
+
+import com.civic.issue.enums.IssueStatus;
+import com.civic.issue.enums.Zone;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Optional write-behind buffer for upvote toggles
+ * (app.upvotes.write-behind.enabled).
+ *
+ * A toggle is recorded per issue (each issue's votes are their own lock
+ * stripe), appended to a local log and acknowledged; a scheduled flush
+ * writes all buffered votes with batched JDBC statements, then recounts
+ * upvote_count and priority_score for the touched issues. Recounting makes
+ * a flush idempotent, so replaying the log after a crash is safe.
+ *
+ * Lookups consult the buffer before the database, so hasUpvoted and the
+ * returned counts reflect unflushed toggles.
+ *
+ * A toggle holds its stripe only to update memory and write its log line.
+ * The database lookup for a first toggle runs before the stripe is taken,
+ * and the fsync runs after it is released. Toggles waiting on the disk at
+ * the same time share one fsync (group commit).
+ */
+@Slf4j
+@Service
+public class UpvoteBuffer {
+
+    private final JdbcTemplate         jdbcTemplate;
+    private final TransactionTemplate  transactionTemplate;
+    private final PriorityScoreService priorityScoreService;
+    private final UpvotedIssueCache    upvotedIssueCache;
+    private final ZonePriorityIndex    zonePriorityIndex;
+
+    @Value("${app.upvotes.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.upvotes.write-behind.log-path:data/upvote-buffer.log}")
+    private String logPath;
+
+    /** One user's buffered vote on one issue. */
+    private static final class Vote {
+        final boolean before;   // state this generation started from
+        boolean desired;
+
+        Vote(boolean before) {
+            this.before = before;
+            this.desired = before;
+        }
+    }
+
+    // issueId → (userId → vote); guarded by the inner map's monitor
+    private volatile Map<Long, Map<Long, Vote>> pending = new ConcurrentHashMap<>();
+    // generation being written by flush(); null when idle
+    private volatile Map<Long, Map<Long, Vote>> flushing;
+
+    // Toggles share the read lock; swapping generations takes the write lock
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final Object flushLock = new Object();
+    // Bumped when a flushed generation is handed off, before flushing is cleared
+    private final AtomicLong flushes = new AtomicLong();
+
+    private FileChannel logChannel;
+    // Log lines written / known to be on disk; syncLock serialises the fsync
+    private final AtomicLong appended = new AtomicLong();
+    private volatile long synced;
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    public UpvoteBuffer(JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        PriorityScoreService priorityScoreService,
+                        UpvotedIssueCache upvotedIssueCache,
+                        ZonePriorityIndex zonePriorityIndex) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.priorityScoreService = priorityScoreService;
+        this.upvotedIssueCache = upvotedIssueCache;
+        this.zonePriorityIndex = zonePriorityIndex;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ── Toggle / read ─────────────────────────────────────────────────────────
+
+    /**
+     * Flips the user's vote and logs it durably before returning.
+     *
+     * @param persisted current database state, queried only if the buffer
+     *                  has no newer state for this (issue, user)
+     * @return true if the user has now upvoted
+     */
+    public boolean toggle(long issueId, long userId, BooleanSupplier persisted) {
+        while (true) {
+            // Read outside the locks; if a flush commits before the stripe is
+            // taken, the database may have moved on and this is read again
+            long seen = flushes.get();
+            Boolean buffered = bufferedState(issueId, userId);
+            boolean base = buffered != null ? buffered : persisted.getAsBoolean();
+
+            swapLock.readLock().lock();
+            try {
+                boolean desired;
+                long ticket;
+                Map<Long, Vote> votes = pending.computeIfAbsent(issueId, k -> new HashMap<>());
+                synchronized (votes) {
+                    Vote vote = votes.get(userId);
+                    if (vote == null) {
+                        Boolean inFlight = stateIn(flushing, issueId, userId);
+                        if (inFlight == null && flushes.get() != seen) continue;
+                        vote = new Vote(inFlight != null ? inFlight : base);
+                        votes.put(userId, vote);
+                    }
+                    desired = !vote.desired;
+                    ticket = append(issueId, userId, desired);
+                    vote.desired = desired;
+                }
+                // Still under the read lock, so the log cannot rotate underneath
+                awaitDurable(ticket);
+                return desired;
+            } finally {
+                swapLock.readLock().unlock();
+            }
+        }
+    }
+
+    /** @return buffered state, or null if the database is authoritative */
+    public Boolean bufferedState(long issueId, long userId) {
+        Boolean state = stateIn(pending, issueId, userId);
+        return state != null ? state : stateIn(flushing, issueId, userId);
+    }
+
+    /** Net upvotes buffered for an issue but not yet in upvote_count. */
+    public int unflushedDelta(long issueId) {
+        return delta(flushing, issueId) + delta(pending, issueId);
+    }
+
+    private static Boolean stateIn(Map<Long, Map<Long, Vote>> generation, long issueId, long userId) {
+        if (generation == null) return null;
+        Map<Long, Vote> votes = generation.get(issueId);
+        if (votes == null) return null;
+        synchronized (votes) {
+            Vote vote = votes.get(userId);
+            return vote != null ? vote.desired : null;
+        }
+    }
+
+    private static int delta(Map<Long, Map<Long, Vote>> generation, long issueId) {
+        if (generation == null) return 0;
+        Map<Long, Vote> votes = generation.get(issueId);
+        if (votes == null) return 0;
+        int delta = 0;
+        synchronized (votes) {
+            for (Vote v : votes.values()) delta += (v.desired ? 1 : 0) - (v.before ? 1 : 0);
+        }
+        return delta;
+    }
+
+    // ── Flush ─────────────────────────────────────────────────────────────────
+
+    @Scheduled(fixedDelayString = "${app.upvotes.write-behind.flush-ms:500}")
+    public void flush() {
+        if (!enabled) return;
+        synchronized (flushLock) {
+            // A failed flush keeps its generation and is retried first
+            if (flushing == null && !swapGeneration()) return;
+            Map<Long, Map<Long, Vote>> generation = flushing;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    write(generation);
+                    // Hand the generation off as the rows commit, so no reader
+                    // counts a vote both in upvote_count and as unflushed
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            flushes.incrementAndGet();
+                            flushing = null;
+                            // Sets loaded while these votes were buffered predate them
+                            upvotedIssueCache.invalidateAll(votersIn(generation));
+                        }
+                    });
+                });
+                Files.deleteIfExists(flushingLogPath());
+                log.debug("[UpvoteBuffer] Flushed votes for {} issues", generation.size());
+            } catch (Exception ex) {
+                log.error("[UpvoteBuffer] Flush failed, will retry: {}", ex.getMessage());
+            }
+        }
+    }
+
+    private boolean swapGeneration() {
+        swapLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) return false;
+            flushing = pending;
+            pending = new ConcurrentHashMap<>();
+            // New toggles go to a fresh log; the old one lives until its flush commits
+            logChannel.close();
+            Files.move(logPath(), flushingLogPath(), StandardCopyOption.REPLACE_EXISTING);
+            logChannel = openLog();
+            return true;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot rotate upvote log", ex);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private static Set<Long> votersIn(Map<Long, Map<Long, Vote>> generation) {
+        Set<Long> userIds = new HashSet<>();
+        generation.values().forEach(votes -> {
+            synchronized (votes) {
+                userIds.addAll(votes.keySet());
+            }
+        });
+        return userIds;
+    }
+
+    private void write(Map<Long, Map<Long, Vote>> generation) {
+        List<Object[]> adds = new ArrayList<>();
+        List<Object[]> removes = new ArrayList<>();
+        generation.forEach((issueId, votes) -> {
+            synchronized (votes) {
+                votes.forEach((userId, vote) ->
+                        (vote.desired ? adds : removes).add(vote.desired
+                                ? new Object[]{userId, issueId}
+                                : new Object[]{issueId, userId}));
+            }
+        });
+
+        // Votes for issues deleted since they were buffered are skipped
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO issue_upvotes (issue_id, user_id, created_at)
+                SELECT id, ?, NOW() FROM issues WHERE id = ?
+                ON DUPLICATE KEY UPDATE issue_id = issue_id
+                """, adds);
+        jdbcTemplate.batchUpdate(
+                "DELETE FROM issue_upvotes WHERE issue_id = ? AND user_id = ?", removes);
+
+        List<Long> issueIds = new ArrayList<>(generation.keySet());
+        jdbcTemplate.batchUpdate(
+                "UPDATE issues SET upvote_count = (SELECT COUNT(*) FROM issue_upvotes WHERE issue_id = ?) WHERE id = ?",
+                issueIds.stream().map(id -> new Object[]{id, id}).collect(Collectors.toList()));
+
+        String placeholders = String.join(",", Collections.nCopies(issueIds.size(), "?"));
+        List<Object[]> scores = jdbcTemplate.query(
+                "SELECT id, upvote_count, created_at, status, category, zone FROM issues WHERE id IN (" + placeholders + ")",
+                (rs, i) -> {
+                    long id = rs.getLong("id");
+                    LocalDateTime createdAt = rs.getObject("created_at", LocalDateTime.class);
+                    IssueStatus status = IssueStatus.valueOf(rs.getString("status"));
+                    String zone = rs.getString("zone");
+                    double score = priorityScoreService.calculate(
+                            rs.getInt("upvote_count"), createdAt, status, rs.getString("category"));
+                    // Applied after the flush transaction commits
+                    zonePriorityIndex.onScoreChanged(id, zone != null ? Zone.valueOf(zone) : null,
+                            status, score, createdAt);
+                    return new Object[]{score, id};
+                },
+                issueIds.toArray());
+        jdbcTemplate.batchUpdate("UPDATE issues SET priority_score = ? WHERE id = ?", scores);
+    }
+
+    // ── Append log ────────────────────────────────────────────────────────────
+    // One line per toggle: "<issueId> <userId> <1|0>", forced to disk before
+    // the toggle is acknowledged. Callers hold the read side of swapLock from
+    // append to awaitDurable; rotation takes the write side, so every line in
+    // a rotated log has already been forced.
+
+    @PostConstruct
+    void recover() throws IOException {
+        if (!enabled) return;
+        Files.createDirectories(logPath().toAbsolutePath().getParent());
+
+        // An interrupted flush left its generation in .flushing; it is older
+        // than anything in the current log, so it is replayed first
+        List<String> replayed = new ArrayList<>();
+        for (Path file : List.of(flushingLogPath(), logPath())) {
+            if (!Files.exists(file)) continue;
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] parts = line.trim().split(" ");
+                if (parts.length != 3) continue;   // torn final write
+                long issueId = Long.parseLong(parts[0]);
+                long userId = Long.parseLong(parts[1]);
+                // Baseline only feeds unflushed counts; the flush recounts anyway
+                pending.computeIfAbsent(issueId, k -> new HashMap<>())
+                        .computeIfAbsent(userId, u -> new Vote(false)).desired = "1".equals(parts[2]);
+                replayed.add(line.trim());
+            }
+        }
+
+        if (!replayed.isEmpty()) {
+            Files.write(logPath(), replayed, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        Files.deleteIfExists(flushingLogPath());
+        logChannel = openLog();
+
+        if (!replayed.isEmpty()) {
+            log.info("[UpvoteBuffer] Replayed {} logged toggles", replayed.size());
+            flush();
+        }
+    }
+
+    // @return ticket to pass to awaitDurable
+    private long append(long issueId, long userId, boolean desired) {
+        byte[] line = (issueId + " " + userId + " " + (desired ? 1 : 0) + "\n").getBytes(StandardCharsets.UTF_8);
+        try {
+            logChannel.write(ByteBuffer.wrap(line));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot append to upvote log", ex);
+        }
+        // Counted after the write, so a force that starts later covers it
+        return appended.incrementAndGet();
+    }
+
+    // Group commit: one force covers every line appended before it began,
+    // so toggles arriving during an fsync share the next one
+    private void awaitDurable(long ticket) {
+        if (synced >= ticket) return;
+        syncLock.lock();
+        try {
+            if (synced >= ticket) return;
+            long target = appended.get();
+            logChannel.force(false);
+            synced = target;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot sync upvote log", ex);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private FileChannel openLog() throws IOException {
+        return FileChannel.open(logPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path logPath() {
+        return Paths.get(logPath);
+    }
+
+    private Path flushingLogPath() {
+        return Paths.get(logPath + ".flushing");
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        if (!enabled) return;
+        flush();
+        // If that call only retried an earlier failed generation, flush the rest
+        if (!pending.isEmpty()) flush();
+        if (logChannel != null) logChannel.close();
+    }
+}
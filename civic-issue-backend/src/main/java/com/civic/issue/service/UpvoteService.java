@@ -1,8 +1,10 @@
 package com.civic.issue.service;
 
+import java.util.List;
 import java.util.Map;
 
 public interface UpvoteService {
     Map<String, Object> toggleUpvote(Long issueId, String userEmail, Double lat, Double lng);
     boolean hasUpvoted(Long issueId, String userEmail);
+    Map<Long, Boolean> upvoteStatus(List<Long> issueIds, String userEmail);
 }
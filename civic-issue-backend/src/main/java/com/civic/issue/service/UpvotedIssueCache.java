@@ -0,0 +1,110 @@
+package com.civic.issue.service;
+
+import com.civic.issue.repository.IssueUpvoteRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Per-user set of upvoted issue ids, held as a sorted long[] and probed by
+ * binary search, so a feed page's upvote state is answered without a query.
+ *
+ * Loaded with one query per user on first use. Users with more than
+ * {@code max-set-size} upvotes get a TOO_MANY marker instead of a set, so
+ * the oversized load is not repeated; their lookups fall back to a single
+ * IN query over the requested ids. Entries are invalidated after a
+ * toggle commits and after the write-behind buffer flushes a user's votes.
+ * That only reaches this instance's cache, so entries also expire
+ * ttl-seconds after loading: a toggle made on another instance shows here
+ * within that window.
+ */
+@Service
+public class UpvotedIssueCache {
+
+    private static final long[] EMPTY = new long[0];
+    // Compared by identity; Caffeine does not cache null, so this stands in for "too many"
+    private static final long[] TOO_MANY = new long[0];
+
+    private final IssueUpvoteRepository upvoteRepository;
+    private final int maxSetSize;
+    private final Cache<Long, long[]> byUser;
+
+    public UpvotedIssueCache(IssueUpvoteRepository upvoteRepository,
+                             @Value("${app.cache.upvotes.max-users:10000}") long maxUsers,
+                             @Value("${app.cache.upvotes.max-set-size:5000}") int maxSetSize,
+                             @Value("${app.cache.upvotes.ttl-seconds:600}") long ttlSeconds) {
+        this.upvoteRepository = upvoteRepository;
+        this.maxSetSize = maxSetSize;
+        this.byUser = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /** Subset of {@code issueIds} the user has upvoted in the database. */
+    public Set<Long> upvotedAmong(long userId, Collection<Long> issueIds) {
+        if (issueIds.isEmpty()) return Set.of();
+
+        long[] upvoted = byUser.get(userId, this::load);
+        if (upvoted == TOO_MANY) {
+            return new HashSet<>(upvoteRepository.findUpvotedIssueIds(userId, issueIds));
+        }
+        Set<Long> hits = new HashSet<>();
+        for (Long id : issueIds) {
+            if (id != null && Arrays.binarySearch(upvoted, id) >= 0) hits.add(id);
+        }
+        return hits;
+    }
+
+    /**
+     * Drops the user's set once the current transaction commits. Caffeine
+     * blocks the invalidation behind an in-flight load of the same key, so
+     * a load that read the old rows cannot outlive it.
+     */
+    public void invalidateAfterCommit(long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() { byUser.invalidate(userId); }
+            });
+        } else {
+            byUser.invalidate(userId);
+        }
+    }
+
+    public void invalidateAll(Collection<Long> userIds) {
+        byUser.invalidateAll(userIds);
+    }
+
+    /** Hit/miss counters for GET /api/admin/cache-stats */
+    public Map<String, Object> stats() {
+        CacheStats s = byUser.stats();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("size", byUser.estimatedSize());
+        out.put("hits", s.hitCount());
+        out.put("misses", s.missCount());
+        out.put("hitRate", Math.round(s.hitRate() * 1000.0) / 1000.0);
+        out.put("evictions", s.evictionCount());
+        return out;
+    }
+
+    // TOO_MANY when the user has more upvotes than a set may hold
+    private long[] load(Long userId) {
+        List<Long> ids = upvoteRepository.findIssueIdsByUserId(userId, Pageable.ofSize(maxSetSize + 1));
+        if (ids.size() > maxSetSize) return TOO_MANY;
+        if (ids.isEmpty()) return EMPTY;
+        long[] sorted = new long[ids.size()];
+        for (int i = 0; i < sorted.length; i++) sorted[i] = ids.get(i);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+}
@@ -0,0 +1,88 @@
+package com.civic.issue.service;
+
+import com.civic.issue.entity.User;
+import com.civic.issue.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded, TTL-evicting cache of users keyed by email.
+ *
+ * Serves the JWT filter's UserDetails lookup and the per-request
+ * findByEmail calls in services and controllers, which previously cost two
+ * or more identical queries per request. Entries are evicted by
+ * UserChangeListener once a User update/delete commits.
+ *
+ * Each read returns a fresh detached copy, so callers may mutate it without
+ * touching the cached state. The copy may be up to a TTL old, so code that
+ * writes a user loads it through UserRepository instead. Unknown emails are
+ * not cached.
+ */
+@Service
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> byEmail;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${app.cache.users.max-size:10000}") long maxSize,
+                     @Value("${app.cache.users.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<User> findByEmail(String email) {
+        if (email == null) return Optional.empty();
+        User cached = byEmail.getIfPresent(email);
+        if (cached == null) {
+            Optional<User> loaded = userRepository.findByEmail(email);
+            if (loaded.isEmpty()) return Optional.empty();
+            cached = copyOf(loaded.get());
+            byEmail.put(email, cached);
+        }
+        return Optional.of(copyOf(cached));
+    }
+
+    public void evict(String email) {
+        if (email != null) byEmail.invalidate(email);
+    }
+
+    /** Hit/miss counters for GET /api/admin/cache-stats */
+    public Map<String, Object> stats() {
+        CacheStats s = byEmail.stats();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("size", byEmail.estimatedSize());
+        out.put("hits", s.hitCount());
+        out.put("misses", s.missCount());
+        out.put("hitRate", Math.round(s.hitRate() * 1000.0) / 1000.0);
+        out.put("evictions", s.evictionCount());
+        return out;
+    }
+
+    private static User copyOf(User u) {
+        return User.builder()
+                .id(u.getId())
+                .name(u.getName())
+                .email(u.getEmail())
+                .phone(u.getPhone())
+                .password(u.getPassword())
+                .role(u.getRole())
+                .zone(u.getZone())
+                .oauthProvider(u.getOauthProvider())
+                .oauthId(u.getOauthId())
+                .avatarUrl(u.getAvatarUrl())
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.civic.issue.service;
+
+import com.civic.issue.entity.User;
+import com.civic.issue.enums.RoleType;
+import com.civic.issue.enums.Zone;
+import com.civic.issue.security.TokenRevocationList;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link User}: any role, zone, phone or profile change —
+ * from UserController, RegionalAdminController, the WhatsApp bot or OAuth
+ * sign-in — drops the cached entry so the next request reloads it, and
+ * marks the user's stateless tokens stale so new role/zone claims apply.
+ * Push streams opened under the old role or zone are ended.
+ *
+ * The callbacks fire when Hibernate flushes, before the change commits, so
+ * both steps are deferred to afterCommit. Done earlier, a concurrent
+ * request could reload and re-cache the old row, or be issued a token with
+ * the old claims that postdates the stale mark.
+ *
+ * Created through Spring's Hibernate bean container while the
+ * EntityManagerFactory is still starting, hence the deferred lookups.
+ */
+@Component
+public class UserChangeListener {
+
+    private final ObjectProvider<UserCache>           userCache;
+    private final ObjectProvider<TokenRevocationList> revocationList;
+    private final ObjectProvider<PushEventBus>        pushEventBus;
+
+    public UserChangeListener(ObjectProvider<UserCache> userCache,
+                              ObjectProvider<TokenRevocationList> revocationList,
+                              ObjectProvider<PushEventBus> pushEventBus) {
+        this.userCache = userCache;
+        this.revocationList = revocationList;
+        this.pushEventBus = pushEventBus;
+    }
+
+    @PostUpdate
+    void onUpdate(User user) {
+        long userId = user.getId();
+        RoleType role = user.getRole();
+        Zone zone = user.getZone();
+        onChange(user.getEmail(), () -> pushEventBus.getObject().accountChanged(userId, role, zone));
+    }
+
+    @PostRemove
+    void onRemove(User user) {
+        long userId = user.getId();
+        onChange(user.getEmail(), () -> pushEventBus.getObject().disconnect(userId));
+    }
+
+    private void onChange(String email, Runnable closeStreams) {
+        afterCommit(() -> {
+            userCache.getObject().evict(email);
+            revocationList.getObject().markStale(email);
+            closeStreams.run();
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() { action.run(); }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
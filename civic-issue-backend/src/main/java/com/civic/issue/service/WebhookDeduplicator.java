@@ -0,0 +1,110 @@
+package com.civic.issue.service;
+
+import com.civic.issue.repository.ProcessedMessageRepository;
+import com.civic.issue.scheduler.SchedulerLock;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Drops Twilio webhook redeliveries by MessageSid before any bot work runs.
+ *
+ * Recent sids sit in a bounded in-memory cache, so a retry burst is turned
+ * away without a query. A sid the cache has not seen is claimed by
+ * inserting it into processed_messages, whose primary key also catches
+ * retries that arrive after a restart or at another instance. Rows older
+ * than the retention window are purged hourly; Twilio stops retrying long
+ * before that.
+ */
+@Slf4j
+@Service
+public class WebhookDeduplicator {
+
+    private static final int PURGE_BATCH = 5000;
+
+    // A redelivered sid fails on the primary key; nothing else is absorbed
+    private static final String CLAIM_SQL =
+            "INSERT INTO processed_messages (message_sid, received_at) VALUES (?, NOW())";
+
+    private final ProcessedMessageRepository repository;
+    private final JdbcTemplate               jdbcTemplate;
+    private final TransactionTemplate        transactionTemplate;
+    private final SchedulerLock              schedulerLock;
+    private final Duration                   retention;
+    private final Cache<String, Boolean>     recent;
+
+    public WebhookDeduplicator(ProcessedMessageRepository repository,
+                               JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               SchedulerLock schedulerLock,
+                               @Value("${app.bot.dedup.cache-size:50000}") long cacheSize,
+                               @Value("${app.bot.dedup.retention-hours:24}") long retentionHours) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.schedulerLock = schedulerLock;
+        this.retention = Duration.ofHours(retentionHours);
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    /**
+     * Claims {@code messageSid}. Deliveries without a sid cannot be matched
+     * and are always processed; so are deliveries when the table is
+     * unreachable, since losing a message is worse than a rare duplicate.
+     *
+     * @return true for the first delivery, false for a redelivery
+     */
+    public boolean firstDelivery(String messageSid) {
+        if (messageSid == null || messageSid.isBlank()) return true;
+        if (recent.asMap().putIfAbsent(messageSid, Boolean.TRUE) != null) return false;
+        try {
+            // Autocommit statement, so a duplicate leaves nothing to roll back
+            jdbcTemplate.update(CLAIM_SQL, messageSid);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        } catch (Exception ex) {
+            log.warn("[Dedup] Could not record {}: {}", messageSid, ex.getMessage());
+            return true;
+        }
+    }
+
+    /** Forgets a claimed sid whose delivery was refused, so Twilio's retry is processed. */
+    public void release(String messageSid) {
+        if (messageSid == null || messageSid.isBlank()) return;
+        recent.invalidate(messageSid);
+        try {
+            repository.deleteById(messageSid);
+        } catch (Exception ex) {
+            log.warn("[Dedup] Could not release {}: {}", messageSid, ex.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 20 * * * *")
+    public void purgeExpired() {
+        schedulerLock.runLocked("dedup-purge", Duration.ofMinutes(10), Duration.ofMinutes(1), this::deleteExpired);
+    }
+
+    private void deleteExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int total = 0;
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> repository.deleteOlderThan(cutoff, PURGE_BATCH));
+            total += deleted != null ? deleted : 0;
+        } while (deleted != null && deleted == PURGE_BATCH);
+        if (total > 0) log.info("[Dedup] Purged {} expired message ids", total);
+    }
+}
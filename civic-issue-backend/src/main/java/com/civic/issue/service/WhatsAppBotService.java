@@ -8,13 +8,14 @@ import com.civic.issue.entity.WhatsAppSession;
 import com.civic.issue.enums.IssueStatus;
 import com.civic.issue.repository.IssueRepository;
 import com.civic.issue.repository.UserRepository;
-import com.civic.issue.repository.WhatsAppSessionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.Optional;
 
 @Service
@@ -22,35 +23,43 @@ public class WhatsAppBotService {
 
     private static final Logger log = LoggerFactory.getLogger(WhatsAppBotService.class);
 
-    private final WhatsAppSessionRepository sessionRepository;
+    private final WhatsAppSessionStore      sessionStore;
     private final UserRepository            userRepository;
     private final IssueRepository           issueRepository;
     private final IssueService              issueService;
     private final GeminiService             geminiService;
-    private final TwilioService             twilioService;
+    private final MessageOutbox             outbox;
     private final CloudinaryService         cloudinaryService;
 
+    // Phones whose user name has already been checked, so the lookup in
+    // ensurePhoneNumberAsName runs once per phone rather than per message
+    private final Cache<String, Boolean> namedPhones = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofHours(6))
+            .build();
+
     public WhatsAppBotService(
-            WhatsAppSessionRepository sessionRepository,
+            WhatsAppSessionStore      sessionStore,
             UserRepository            userRepository,
             IssueRepository           issueRepository,
             IssueService              issueService,
             GeminiService             geminiService,
-            TwilioService             twilioService,
+            MessageOutbox             outbox,
             CloudinaryService         cloudinaryService) {
-        this.sessionRepository = sessionRepository;
+        this.sessionStore = sessionStore;
         this.userRepository = userRepository;
         this.issueRepository = issueRepository;
         this.issueService = issueService;
         this.geminiService = geminiService;
-        this.twilioService = twilioService;
+        this.outbox = outbox;
         this.cloudinaryService = cloudinaryService;
     }
 
     @Value("${app.frontend.url:http://localhost:3000}")
     private String frontendUrl;
 
-    @Transactional
+    // Not one transaction: replies are queued (and delivered) as they are
+    // produced, so "AI Verifying..." reaches the user before Gemini returns
     public void handleIncoming(String phone, String body, String mediaUrl, Double lat, Double lng) {
         String cleanedMsg = body != null ? body.trim().toUpperCase() : "";
         log.info("📞 INCOMING WHATSAPP: from={}, body='{}'", phone, cleanedMsg);
@@ -64,16 +73,16 @@ public class WhatsAppBotService {
             return;
         }
 
-        WhatsAppSession session = sessionRepository.findByPhone(phone).orElse(new WhatsAppSession(phone));
+        WhatsAppSession session = sessionStore.find(phone).orElse(new WhatsAppSession(phone));
         String currentState = session.getState() != null ? session.getState() : "IDLE";
         
         // 2. Global Commands
         if ("CANCEL".equals(cleanedMsg)) {
-            sessionRepository.delete(session);
-            twilioService.sendWhatsApp(phone, "🗑️ Report discarded. Send a photo to start again.");
+            sessionStore.delete(phone);
+            outbox.sendWhatsApp(phone, "🗑️ Report discarded. Send a photo to start again.");
             return;
         } else if ("CONFIRM".equals(cleanedMsg)) {
-            handleConfirm(phone);
+            handleConfirm(session);
             return;
         }
 
@@ -90,13 +99,13 @@ public class WhatsAppBotService {
                 break;
             case "AWAITING_LOCATION":
                 if (lat != null && lng != null) {
-                    handleLocationGPS(phone, lat, lng);
+                    handleLocationGPS(session, lat, lng);
                 } else {
-                    twilioService.sendWhatsApp(phone, "📍 *GPS Location Required*\n\nPlease share your location using the WhatsApp Location button.");
+                    outbox.sendWhatsApp(phone, "📍 *GPS Location Required*\n\nPlease share your location using the WhatsApp Location button.");
                 }
                 break;
             case "AWAITING_CONFIRMATION":
-                twilioService.sendWhatsApp(phone, "Please reply *CONFIRM* to submit or *CANCEL* to delete.");
+                outbox.sendWhatsApp(phone, "Please reply *CONFIRM* to submit or *CANCEL* to delete.");
                 break;
             default:
                 sendWelcome(phone);
@@ -105,6 +114,7 @@ public class WhatsAppBotService {
     }
 
     private void ensurePhoneNumberAsName(String phone) {
+        if (namedPhones.getIfPresent(phone) != null) return;
         userRepository.findByPhone(phone).ifPresent(user -> {
             // Update name to phone number if it's currently a placeholder or different
             if (user.getName() == null || user.getName().contains("Citizen") || user.getName().isEmpty()) {
@@ -113,12 +123,15 @@ public class WhatsAppBotService {
                 log.info("🔄 Updated User Name to Phone: {}", phone);
             }
         });
+        // Bot-created users are named after their phone already, so an
+        // unknown phone needs no re-check either
+        namedPhones.put(phone, Boolean.TRUE);
     }
 
     private void handleResolutionReply(String phone, String reply) {
         Optional<User> userOpt = userRepository.findByPhone(phone);
         if (userOpt.isEmpty()) {
-            twilioService.sendWhatsApp(phone, "User account not found. Please report an issue first.");
+            outbox.sendWhatsApp(phone, "User account not found. Please report an issue first.");
             return;
         }
         User user = userOpt.get();
@@ -126,19 +139,19 @@ public class WhatsAppBotService {
         Optional<Issue> issueOpt = issueRepository.findTopByCreatedByAndStatusOrderByCreatedAtDesc(user, IssueStatus.RESOLVED);
         
         if (issueOpt.isEmpty()) {
-            twilioService.sendWhatsApp(phone, "No pending RESOLVED issues found to confirm/reopen.");
+            outbox.sendWhatsApp(phone, "No pending RESOLVED issues found to confirm/reopen.");
             return;
         }
         
         Issue issue = issueOpt.get();
         if ("YES".equals(reply)) {
             issueService.confirmResolution(issue.getId(), user.getEmail());
-            twilioService.sendWhatsApp(phone, "✅ *Issue Closed*. Thank you for the confirmation!");
+            outbox.sendWhatsApp(phone, "✅ *Issue Closed*. Thank you for the confirmation!");
         } else {
             ReopenIssueRequest req = new ReopenIssueRequest();
             req.setNote("Citizen rejected resolution via WhatsApp NO command.");
             issueService.reopenIssue(issue.getId(), req, user.getEmail());
-            twilioService.sendWhatsApp(phone, "↩️ *Issue Reopened*. The zone admin has been notified.");
+            outbox.sendWhatsApp(phone, "↩️ *Issue Reopened*. The zone admin has been notified.");
         }
     }
 
@@ -147,36 +160,33 @@ public class WhatsAppBotService {
         session.setTempLatitude(lat);
         session.setTempLongitude(lng);
         session.setState("AWAITING_LOCATION");
-        sessionRepository.save(session);
 
         if (lat != null && lng != null) {
-            handleLocationGPS(session.getPhone(), lat, lng);
+            // handleLocationGPS saves the session once it has the AI result
+            handleLocationGPS(session, lat, lng);
         } else {
-            twilioService.sendWhatsApp(session.getPhone(), "📸 *Photo Received!*\n\nNow please share your *Live GPS Location*.");
+            sessionStore.save(session);
+            outbox.sendWhatsApp(session.getPhone(), "📸 *Photo Received!*\n\nNow please share your *Live GPS Location*.");
         }
     }
 
     private void sendWelcome(String phone) {
-        twilioService.sendWhatsApp(phone, "Welcome! 🏛️\n\nTo report a civic issue:\n1. 📸 Send a *LIVE PHOTO*.\n2. 📍 Send your *GPS LOCATION*.");
+        outbox.sendWhatsApp(phone, "Welcome! 🏛️\n\nTo report a civic issue:\n1. 📸 Send a *LIVE PHOTO*.\n2. 📍 Send your *GPS LOCATION*.");
     }
 
-    @Transactional
-    protected void handleLocationGPS(String phone, Double lat, Double lng) {
-        WhatsAppSession session = sessionRepository.findByPhone(phone).orElse(null);
-        if (session == null) return;
-
+    private void handleLocationGPS(WhatsAppSession session, Double lat, Double lng) {
+        String phone = session.getPhone();
         session.setTempLatitude(lat);
         session.setTempLongitude(lng);
-        sessionRepository.save(session);
 
-        twilioService.sendWhatsApp(phone, "🤖 *AI Verifying details...*");
+        outbox.sendWhatsApp(phone, "🤖 *AI Verifying details...*");
 
         try {
             GeminiService.GeminiValidationResult result = geminiService.validateIssuePhoto(session.getTempImageUrl());
 
             if (!result.isValidImage()) {
-                twilioService.sendWhatsApp(phone, "❌ *Reject*: " + result.getRejectionReason());
-                sessionRepository.delete(session);
+                outbox.sendWhatsApp(phone, "❌ *Reject*: " + result.getRejectionReason());
+                sessionStore.delete(phone);
                 return;
             }
 
@@ -184,22 +194,24 @@ public class WhatsAppBotService {
             session.setTempDescription(result.getGeneratedDescription());
             session.setTempTitle(result.getSuggestedCategory() + " identified");
             session.setState("AWAITING_CONFIRMATION");
-            sessionRepository.save(session);
+            sessionStore.save(session);
 
             String reportSummary = String.format(
                 "✅ *AI Identification*\n\n📋 *Category*: %s\n📝 *Description*: %s\n\nReply *CONFIRM* to publish this report.",
                 result.getSuggestedCategory(), result.getGeneratedDescription());
             
-            twilioService.sendWhatsApp(phone, reportSummary);
+            outbox.sendWhatsApp(phone, reportSummary);
         } catch (Exception e) {
-            twilioService.sendWhatsApp(phone, "⚠️ AI busy. Try sending the photo again.");
+            // Keep the photo and location so the next attempt starts from here
+            sessionStore.save(session);
+            outbox.sendWhatsApp(phone, "⚠️ AI busy. Try sending the photo again.");
         }
     }
 
-    private void handleConfirm(String phone) {
-        WhatsAppSession session = sessionRepository.findByPhone(phone).orElse(null);
-        if (session == null || !"AWAITING_CONFIRMATION".equals(session.getState())) {
-            twilioService.sendWhatsApp(phone, "Nothing to confirm! Send a photo of an issue to start.");
+    private void handleConfirm(WhatsAppSession session) {
+        String phone = session.getPhone();
+        if (!"AWAITING_CONFIRMATION".equals(session.getState())) {
+            outbox.sendWhatsApp(phone, "Nothing to confirm! Send a photo of an issue to start.");
             return;
         }
 
@@ -228,11 +240,11 @@ public class WhatsAppBotService {
             
             issueService.createIssueFromBot(request, user.getEmail());
             
-            twilioService.sendWhatsApp(phone, "🚀 *Issue Published!* \n\nTrack: " + frontendUrl + "/dashboard");
-            sessionRepository.delete(session);
+            outbox.sendWhatsApp(phone, "🚀 *Issue Published!* \n\nTrack: " + frontendUrl + "/dashboard");
+            sessionStore.delete(phone);
         } catch (Exception e) {
             log.error("Confirmation error: {}", e.getMessage(), e);
-            twilioService.sendWhatsApp(phone, "❌ Failed to submit. Please try again.");
+            outbox.sendWhatsApp(phone, "❌ Failed to submit. Please try again.");
         }
     }
 }
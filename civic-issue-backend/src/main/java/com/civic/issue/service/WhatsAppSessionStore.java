@@ -0,0 +1,180 @@
+package com.civic.issue.service;
+
+import com.civic.issue.entity.WhatsAppSession;
+import com.civic.issue.repository.WhatsAppSessionRepository;
+import com.civic.issue.scheduler.SchedulerLock;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * Write-through cache of WhatsApp conversation state, keyed by phone.
+ *
+ * The database is the source of truth: webhooks for one phone may reach
+ * different instances, so a cached session is used only after probing the
+ * row's updated_at (microsecond precision) and finding it unchanged. The
+ * probe is a primary-key sized read instead of the full row with its TEXT
+ * columns; a changed or deleted row is reloaded or dropped. Every write is
+ * a single upsert on the unique phone column. Callers get detached copies
+ * and must call save() for a change to stick.
+ *
+ * A cached message therefore costs two round trips (probe, then upsert),
+ * not one. Folding the check into the write, as an upsert conditional on
+ * the cached updated_at, would detect a conflict only after the handler
+ * had acted on stale state: by then it has queued replies and may have
+ * created an issue, so it could not simply be re-run on the reloaded row.
+ *
+ * A session is abandoned once it has not changed for {@code idle-minutes}:
+ * the cache entry expires on that same clock and its row is deleted, and an
+ * hourly sweep removes abandoned rows that were never cached (e.g. from
+ * before a restart).
+ */
+@Slf4j
+@Service
+public class WhatsAppSessionStore {
+
+    private final WhatsAppSessionRepository  repository;
+    private final TransactionTemplate        transactionTemplate;
+    private final SchedulerLock              schedulerLock;
+    private final Duration                   idle;
+    private final Cache<String, WhatsAppSession> sessions;
+
+    public WhatsAppSessionStore(WhatsAppSessionRepository repository,
+                                TransactionTemplate transactionTemplate,
+                                SchedulerLock schedulerLock,
+                                @Value("${app.bot.session.max-size:10000}") long maxSize,
+                                @Value("${app.bot.session.idle-minutes:1440}") long idleMinutes) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.schedulerLock = schedulerLock;
+        this.idle = Duration.ofMinutes(idleMinutes);
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, WhatsAppSession>() {
+                    @Override
+                    public long expireAfterCreate(String phone, WhatsAppSession s, long now) {
+                        return remainingNanos(s);
+                    }
+                    @Override
+                    public long expireAfterUpdate(String phone, WhatsAppSession s, long now, long current) {
+                        return remainingNanos(s);
+                    }
+                    @Override
+                    public long expireAfterRead(String phone, WhatsAppSession s, long now, long current) {
+                        return current;   // reading does not keep a session alive
+                    }
+                })
+                .removalListener((String phone, WhatsAppSession s, RemovalCause cause) -> {
+                    if (cause == RemovalCause.EXPIRED && phone != null) deleteIdleRow(phone);
+                })
+                .build();
+    }
+
+    /** The phone's live session, or empty if there is none (or it was abandoned). */
+    @Transactional
+    public Optional<WhatsAppSession> find(String phone) {
+        WhatsAppSession cached = sessions.getIfPresent(phone);
+        if (cached != null) {
+            Optional<LocalDateTime> current = repository.findUpdatedAtByPhone(phone);
+            if (current.isEmpty()) {
+                // Finished or cancelled on another instance
+                sessions.invalidate(phone);
+                return Optional.empty();
+            }
+            if (current.get().equals(cached.getUpdatedAt())) return Optional.of(copyOf(cached));
+            // Written elsewhere since it was cached; reload below
+        }
+
+        Optional<WhatsAppSession> loaded = repository.findByPhone(phone);
+        if (loaded.isEmpty()) return Optional.empty();
+        WhatsAppSession session = copyOf(loaded.get());
+        if (isIdle(session)) {
+            repository.deleteIdle(phone, cutoff());
+            return Optional.empty();
+        }
+        sessions.put(phone, session);
+        return Optional.of(copyOf(session));
+    }
+
+    @Transactional
+    public void save(WhatsAppSession session) {
+        // Stored as DATETIME(6), so the cached copy compares equal to the row
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        repository.upsert(session.getPhone(), session.getState(),
+                session.getTempImageUrl(), session.getTempLatitude(), session.getTempLongitude(),
+                session.getTempCategory(), session.getTempTitle(), session.getTempDescription(), now);
+        session.setUpdatedAt(now);
+        if (session.getCreatedAt() == null) session.setCreatedAt(now);
+        sessions.put(session.getPhone(), copyOf(session));
+    }
+
+    @Transactional
+    public void delete(String phone) {
+        sessions.invalidate(phone);
+        repository.deleteByPhone(phone);
+    }
+
+    /**
+     * Expires idle cache entries (deleting their rows) on every node; one
+     * node then sweeps the rows never cached.
+     */
+    @Scheduled(cron = "0 40 * * * *")
+    public void purgeIdle() {
+        sessions.cleanUp();
+        schedulerLock.runLocked("bot-session-purge", Duration.ofMinutes(10), Duration.ofMinutes(1), () -> {
+            Integer deleted = transactionTemplate.execute(status -> repository.deleteAllIdle(cutoff()));
+            if (deleted != null && deleted > 0) log.info("[BotSessions] Purged {} abandoned sessions", deleted);
+        });
+    }
+
+    private void deleteIdleRow(String phone) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.deleteIdle(phone, cutoff()));
+        } catch (Exception ex) {
+            log.warn("[BotSessions] Could not delete idle session {}: {}", phone, ex.getMessage());
+        }
+    }
+
+    private LocalDateTime cutoff() {
+        return LocalDateTime.now().minus(idle);
+    }
+
+    private boolean isIdle(WhatsAppSession s) {
+        return s.getUpdatedAt() != null && s.getUpdatedAt().isBefore(cutoff());
+    }
+
+    private long remainingNanos(WhatsAppSession s) {
+        if (s.getUpdatedAt() == null) return idle.toNanos();
+        long left = Duration.between(LocalDateTime.now(), s.getUpdatedAt().plus(idle)).toNanos();
+        return Math.max(left, 0);
+    }
+
+    private static WhatsAppSession copyOf(WhatsAppSession s) {
+        WhatsAppSession copy = WhatsAppSession.builder()
+                .phone(s.getPhone())
+                .state(s.getState())
+                .tempImageUrl(s.getTempImageUrl())
+                .tempLatitude(s.getTempLatitude())
+                .tempLongitude(s.getTempLongitude())
+                .tempDescription(s.getTempDescription())
+                .build();
+        copy.setId(s.getId());
+        copy.setTempCategory(s.getTempCategory());
+        copy.setTempTitle(s.getTempTitle());
+        copy.setCreatedAt(s.getCreatedAt());
+        copy.setUpdatedAt(s.getUpdatedAt());
+        return copy;
+    }
+}
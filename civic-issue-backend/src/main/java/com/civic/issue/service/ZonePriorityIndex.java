@@ -0,0 +1,257 @@
+package com.civic.issue.service;
+
+import com.civic.issue.entity.Issue;
+import com.civic.issue.enums.IssueStatus;
+import com.civic.issue.enums.Zone;
+import com.civic.issue.repository.IssueRankRow;
+import com.civic.issue.repository.IssueRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Per-zone, bounded index of the highest-priority open issues.
+ *
+ * Each zone keeps at most {@code capacity} entries in a skip list ordered
+ * like the feed (score, newest, id), so a top-K read walks K entries no
+ * matter how many issues the zone has. The set always holds the zone's top
+ * N by stored priority_score: an issue outside it is only admitted if it
+ * outranks the current tail, and an entry whose score drops below the tail
+ * is evicted rather than re-ranked. When removals leave a truncated zone
+ * below the requested K, that zone is refilled with one LIMIT query.
+ *
+ * Kept current from the issue and upvote write paths (applied after
+ * commit) and rebuilt at startup and after each priority recompute pass.
+ *
+ * Only this instance's writes reach the index. With several instances, an
+ * issue opened or upvoted through another one is missing or mis-ranked
+ * here until the next rebuild; one closed or deleted there is caught when
+ * the rows are loaded, and evicted. Such deployments set
+ * app.queue.top-k.index.enabled=false; the index then never warms and
+ * every top-K read uses the per-zone LIMIT query.
+ */
+@Slf4j
+@Service
+public class ZonePriorityIndex {
+
+    private final IssueRepository issueRepository;
+    private final int capacity;
+    private final boolean enabled;
+
+    private final Map<Zone, ZoneQueue> zones = new EnumMap<>(Zone.class);
+    // issue id → zone it is indexed under, for moves and removals
+    private final Map<Long, Zone> zoneOf = new ConcurrentHashMap<>();
+    private volatile boolean warm;
+
+    public ZonePriorityIndex(IssueRepository issueRepository,
+                             @Value("${app.queue.top-k.capacity:200}") int capacity,
+                             @Value("${app.queue.top-k.index.enabled:true}") boolean enabled) {
+        this.issueRepository = issueRepository;
+        this.capacity = capacity;
+        this.enabled = enabled;
+        for (Zone zone : Zone.values()) zones.put(zone, new ZoneQueue());
+    }
+
+    private record Entry(long id, double score, LocalDateTime createdAt) {}
+
+    private static final Comparator<Entry> RANK = Comparator
+            .comparingDouble(Entry::score).reversed()
+            .thenComparing(Entry::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Comparator.comparingLong(Entry::id).reversed());
+
+    /** One zone's entries; writers synchronise on the queue, readers don't. */
+    private static final class ZoneQueue {
+        final ConcurrentSkipListSet<Entry> ranked = new ConcurrentSkipListSet<>(RANK);
+        final Map<Long, Entry> byId = new HashMap<>();
+        // true when the zone has no open issues beyond those held here
+        volatile boolean complete = true;
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Ids of the {@code k} highest-priority open issues of {@code zone}, or
+     * across all zones when {@code zone} is null, best first.
+     */
+    public List<Long> topIds(Zone zone, int k) {
+        int limit = Math.max(1, Math.min(k, capacity));
+        if (zone != null) return take(zone, limit);
+
+        // Merge the per-zone heads; each contributes at most `limit`
+        List<Entry> merged = new ArrayList<>();
+        for (Zone z : Zone.values()) {
+            refillIfShort(z, limit);
+            Iterator<Entry> it = zones.get(z).ranked.iterator();
+            for (int n = 0; n < limit && it.hasNext(); n++) merged.add(it.next());
+        }
+        merged.sort(RANK);
+        return merged.stream().limit(limit).map(Entry::id).toList();
+    }
+
+    private List<Long> take(Zone zone, int limit) {
+        refillIfShort(zone, limit);
+        List<Long> ids = new ArrayList<>(limit);
+        Iterator<Entry> it = zones.get(zone).ranked.iterator();
+        while (ids.size() < limit && it.hasNext()) ids.add(it.next().id());
+        return ids;
+    }
+
+    // ── Maintenance ───────────────────────────────────────────────────────────
+
+    /** Re-rank an issue after it was created or changed. */
+    public void onSaved(Issue issue) {
+        if (issue.getId() == null) return;
+        Long id = issue.getId();
+        if (issue.getStatus() == IssueStatus.CLOSED || issue.getZone() == null) {
+            afterCommit(() -> remove(id));
+            return;
+        }
+        Zone zone = issue.getZone();
+        Entry entry = new Entry(id, scoreOf(issue.getPriorityScore()), issue.getCreatedAt());
+        afterCommit(() -> put(zone, entry));
+    }
+
+    /** Score-only change (upvotes); ignored unless the issue is open. */
+    public void onScoreChanged(long issueId, Zone zone, IssueStatus status,
+                               double score, LocalDateTime createdAt) {
+        if (status == IssueStatus.CLOSED || zone == null) {
+            afterCommit(() -> remove(issueId));
+        } else {
+            Entry entry = new Entry(issueId, score, createdAt);
+            afterCommit(() -> put(zone, entry));
+        }
+    }
+
+    public void onDeleted(Long issueId) {
+        afterCommit(() -> remove(issueId));
+    }
+
+    /** Drops an entry found closed or deleted on read; no transaction needed. */
+    public void evict(Long issueId) {
+        remove(issueId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            log.info("[ZonePriorityIndex] Disabled, top-K served from DB");
+            return;
+        }
+        try {
+            rebuild();
+            warm = true;
+        } catch (Exception ex) {
+            log.error("[ZonePriorityIndex] Warm-up failed, top-K served from DB: {}", ex.getMessage());
+        }
+    }
+
+    /** Reloads every zone; used at startup and after bulk score rewrites. */
+    public void rebuild() {
+        int total = 0;
+        for (Zone zone : Zone.values()) total += reload(zone);
+        log.info("[ZonePriorityIndex] Rebuilt with {} issues across {} zones", total, zones.size());
+    }
+
+    private int reload(Zone zone) {
+        ZoneQueue queue = zones.get(zone);
+        Map<Long, Zone> moved = new HashMap<>();
+        int loaded;
+        // Hold the zone while querying so no after-commit update slips between read and swap
+        synchronized (queue) {
+            List<IssueRankRow> rows = issueRepository.findTopOpenByZone(zone, PageRequest.of(0, capacity));
+            for (Long id : queue.byId.keySet()) zoneOf.remove(id, zone);
+            queue.ranked.clear();
+            queue.byId.clear();
+            for (IssueRankRow row : rows) {
+                Entry entry = new Entry(row.getId(), scoreOf(row.getPriorityScore()), row.getCreatedAt());
+                queue.ranked.add(entry);
+                queue.byId.put(entry.id(), entry);
+                Zone previous = zoneOf.put(entry.id(), zone);
+                if (previous != null && previous != zone) moved.put(entry.id(), previous);
+            }
+            queue.complete = rows.size() < capacity;
+            loaded = rows.size();
+        }
+        // Outside the lock: never hold two zones at once
+        moved.forEach((id, previous) -> drop(zones.get(previous), id));
+        return loaded;
+    }
+
+    private void refillIfShort(Zone zone, int wanted) {
+        ZoneQueue queue = zones.get(zone);
+        if (warm && !queue.complete && queue.ranked.size() < wanted) reload(zone);
+    }
+
+    private void put(Zone zone, Entry entry) {
+        Zone previous = zoneOf.get(entry.id());
+        if (previous != null && previous != zone) remove(entry.id());
+
+        ZoneQueue queue = zones.get(zone);
+        synchronized (queue) {
+            drop(queue, entry.id());
+            // A truncated zone only admits entries that beat its tail; an
+            // empty truncated zone waits for the refill on the next read
+            if (!queue.complete && (queue.ranked.isEmpty()
+                    || RANK.compare(entry, queue.ranked.last()) > 0)) {
+                zoneOf.remove(entry.id(), zone);
+                return;
+            }
+            queue.ranked.add(entry);
+            queue.byId.put(entry.id(), entry);
+            zoneOf.put(entry.id(), zone);
+            while (queue.ranked.size() > capacity) {
+                Entry evicted = queue.ranked.pollLast();
+                queue.byId.remove(evicted.id());
+                zoneOf.remove(evicted.id(), zone);
+                queue.complete = false;
+            }
+        }
+    }
+
+    private void remove(Long id) {
+        Zone zone = zoneOf.remove(id);
+        if (zone == null) return;
+        ZoneQueue queue = zones.get(zone);
+        synchronized (queue) {
+            drop(queue, id);
+        }
+    }
+
+    private static void drop(ZoneQueue queue, long id) {
+        synchronized (queue) {
+            Entry old = queue.byId.remove(id);
+            if (old != null) queue.ranked.remove(old);
+        }
+    }
+
+    private static double scoreOf(Double score) {
+        return score != null ? score : 0.0;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() { action.run(); }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,54 +1,88 @@
 package com.civic.issue.service.impl;
 
+import com.civic.issue.dto.IssueListRow;
 import com.civic.issue.dto.request.*;
 import com.civic.issue.dto.response.*;
 import com.civic.issue.entity.*;
 import com.civic.issue.enums.IssueStatus;
 import com.civic.issue.enums.RoleType;
+import com.civic.issue.enums.Zone;
 import com.civic.issue.exception.IssueRejectionException;
 import com.civic.issue.exception.ResourceNotFoundException;
 import com.civic.issue.exception.UnauthorizedException;
 import com.civic.issue.repository.*;
+import com.civic.issue.service.IssueRollupService;
 import com.civic.issue.service.IssueService;
+import com.civic.issue.service.NotificationService;
+import com.civic.issue.service.OpenIssueIndex;
 import com.civic.issue.service.PriorityScoreService;
+import com.civic.issue.service.PushEventBus;
 import com.civic.issue.service.SmsNotificationService;
+import com.civic.issue.service.UpvoteService;
+import com.civic.issue.service.UserCache;
+import com.civic.issue.service.ZonePriorityIndex;
+import com.civic.issue.util.IssueCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class IssueServiceImpl implements IssueService {
 
     private static final Logger log = LoggerFactory.getLogger(IssueServiceImpl.class);
 
+    /** Upper bound for a single feed page, whatever the client asks for */
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final IssueRepository           issueRepository;
     private final UserRepository            userRepository;
-    private final NotificationRepository    notificationRepository;
+    private final NotificationService       notificationService;
     private final CommentRepository         commentRepository;
-    private final IssueUpvoteRepository     upvoteRepository;
     private final PriorityScoreService      priorityScoreService;
     private final SmsNotificationService    smsNotificationService;
+    private final IssueRollupService        issueRollupService;
+    private final OpenIssueIndex            openIssueIndex;
+    private final ZonePriorityIndex         zonePriorityIndex;
+    private final UserCache                 userCache;
+    private final UpvoteService             upvoteService;
+    private final PushEventBus              pushEventBus;
 
     public IssueServiceImpl(
             IssueRepository           issueRepository,
             UserRepository            userRepository,
-            NotificationRepository    notificationRepository,
+            NotificationService       notificationService,
             CommentRepository         commentRepository,
-            IssueUpvoteRepository     upvoteRepository,
             PriorityScoreService      priorityScoreService,
-            SmsNotificationService    smsNotificationService) {
+            SmsNotificationService    smsNotificationService,
+            IssueRollupService        issueRollupService,
+            OpenIssueIndex            openIssueIndex,
+            ZonePriorityIndex         zonePriorityIndex,
+            UserCache                 userCache,
+            UpvoteService             upvoteService,
+            PushEventBus              pushEventBus) {
         this.issueRepository = issueRepository;
         this.userRepository = userRepository;
-        this.notificationRepository = notificationRepository;
+        this.notificationService = notificationService;
         this.commentRepository = commentRepository;
-        this.upvoteRepository = upvoteRepository;
         this.priorityScoreService = priorityScoreService;
         this.smsNotificationService = smsNotificationService;
+        this.issueRollupService = issueRollupService;
+        this.openIssueIndex = openIssueIndex;
+        this.zonePriorityIndex = zonePriorityIndex;
+        this.userCache = userCache;
+        this.upvoteService = upvoteService;
+        this.pushEventBus = pushEventBus;
     }
 
     @Override
@@ -63,6 +97,9 @@ public class IssueServiceImpl implements IssueService {
 
         issue.setPriorityScore(priorityScoreService.calculate(issue));
         Issue saved = issueRepository.save(issue);
+        issueRollupService.applyChange(null, issueRollupService.snapshot(saved));
+        openIssueIndex.onSaved(saved);
+        zonePriorityIndex.onSaved(saved);
         log.info("Issue #{} created by {}", saved.getId(), userEmail);
         return mapToResponse(saved);
     }
@@ -78,16 +115,142 @@ public class IssueServiceImpl implements IssueService {
     @Transactional(readOnly = true)
     public List<IssueResponse> getAllIssues() {
         // Sorted by priority score DESC
-        return issueRepository.findAllByOrderByPriorityScoreDesc().stream()
-                .map(this::mapToResponse).toList();
+        return issueRepository.findAllListRowsByPriority().stream()
+                .map(IssueListRow::toResponse).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<IssueResponse> getIssueFeed(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<IssueListRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = issueRepository.findFeedFirstPage(limit);
+        } else {
+            IssueCursor after = IssueCursor.decode(cursor);
+            rows = issueRepository.findFeedAfter(
+                    after.getPriorityScore(), after.getCreatedAt(), after.getId(), limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<IssueListRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            IssueListRow last = page.get(page.size() - 1);
+            nextCursor = new IssueCursor(
+                    last.getPriorityScore() != null ? last.getPriorityScore() : 0.0,
+                    last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(page.stream().map(IssueListRow::toResponse).toList(), nextCursor);
+    }
+
+    /**
+     * Ranks on the score as of now rather than the stored priority_score, so
+     * the queue needs no recompute to stay in order. The returned scores are
+     * computed for the same instant.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<IssueResponse> getLivePriorityQueue(int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Fetch one extra id to know whether another page exists
+        List<Long> ids = issueRepository.findOpenIdsByLivePriority(
+                now, (long) pageNumber * pageSize, pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) ids = ids.subList(0, pageSize);
+
+        Map<Long, IssueListRow> rows = ids.isEmpty() ? Map.of()
+                : issueRepository.findListRowsByIds(ids).stream()
+                        .collect(Collectors.toMap(IssueListRow::getId, Function.identity()));
+
+        List<IssueResponse> items = ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)   // deleted between the two queries
+                .map(row -> {
+                    IssueResponse res = row.toResponse();
+                    res.setPriorityScore(priorityScoreService.calculate(
+                            res.getUpvoteCount() != null ? res.getUpvoteCount() : 0,
+                            res.getCreatedAt(), res.getStatus(), res.getCategory(), now));
+                    return res;
+                })
+                .toList();
+        return new PageResponse<>(items, pageNumber, pageSize, hasMore);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<IssueResponse> getMyIssues(String userEmail) {
         User user = findUserByEmail(userEmail);
-        return issueRepository.findByCreatedByOrderByCreatedAtDesc(user).stream()
-                .map(this::mapToResponse).toList();
+        return issueRepository.findListRowsByCreatedBy(user.getId()).stream()
+                .map(IssueListRow::toResponse).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<IssueResponse> getZoneIssues(Zone zone) {
+        List<IssueListRow> rows = (zone == null)
+                ? issueRepository.findAllListRowsByCreatedAt()
+                : issueRepository.findListRowsByZone(zone);
+        return rows.stream().map(IssueListRow::toResponse).toList();
+    }
+
+    /**
+     * Served from ZonePriorityIndex, so the cost is K rows however large the
+     * zone is; before the index is warm the per-zone LIMIT query is used.
+     * The index only sees this instance's writes, so rows are re-checked
+     * after loading: if any indexed issue was closed or deleted elsewhere,
+     * it is evicted and the answer comes from the LIMIT query instead.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<IssueResponse> getTopZoneIssues(Zone zone, int k) {
+        int limit = Math.max(1, Math.min(k, zonePriorityIndex.getCapacity()));
+        List<Long> ids = zonePriorityIndex.isWarm()
+                ? zonePriorityIndex.topIds(zone, limit)
+                : topZoneIdsFromDb(zone, limit);
+        if (ids.isEmpty()) return List.of();
+
+        Map<Long, IssueListRow> rows = openListRows(ids);
+        if (rows.size() < ids.size() && zonePriorityIndex.isWarm()) {
+            for (Long id : ids) {
+                if (!rows.containsKey(id)) zonePriorityIndex.evict(id);
+            }
+            ids  = topZoneIdsFromDb(zone, limit);
+            rows = openListRows(ids);
+        }
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .map(IssueListRow::toResponse)
+                .toList();
+    }
+
+    private Map<Long, IssueListRow> openListRows(List<Long> ids) {
+        if (ids.isEmpty()) return Map.of();
+        return issueRepository.findListRowsByIds(ids).stream()
+                .filter(row -> row.getStatus() != IssueStatus.CLOSED)
+                .collect(Collectors.toMap(IssueListRow::getId, Function.identity()));
+    }
+
+    private List<Long> topZoneIdsFromDb(Zone zone, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        List<Zone> targets = zone != null ? List.of(zone) : List.of(Zone.values());
+        return targets.stream()
+                .flatMap(z -> issueRepository.findTopOpenByZone(z, page).stream())
+                .sorted(Comparator.comparing((IssueRankRow r) -> r.getPriorityScore() != null ? r.getPriorityScore() : 0.0)
+                        .thenComparing(IssueRankRow::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(IssueRankRow::getId)
+                        .reversed())
+                .limit(limit)
+                .map(IssueRankRow::getId)
+                .toList();
     }
 
     @Override
@@ -99,7 +262,7 @@ public class IssueServiceImpl implements IssueService {
     @Override
     @Transactional
     public IssueResponse updateIssueStatus(Long id, UpdateStatusRequest request, String userEmail) {
-        Issue issue       = findIssueById(id);
+        Issue issue       = findIssueByIdForUpdate(id);
         User  currentUser = findUserByEmail(userEmail);
         checkZonePermission(issue, currentUser);
 
@@ -107,35 +270,42 @@ public class IssueServiceImpl implements IssueService {
             throw new IssueRejectionException("Use 'Mark as Resolved' button to upload a proof photo.");
         }
 
+        IssueRollupService.Snapshot before = issueRollupService.snapshot(issue);
         issue.setStatus(request.getStatus());
         issue.setPriorityScore(priorityScoreService.calculate(issue));
         Issue updated = issueRepository.save(issue);
+        issueRollupService.applyChange(before, issueRollupService.snapshot(updated));
+        openIssueIndex.onSaved(updated);
+        zonePriorityIndex.onSaved(updated);
 
-        try {
-            if (request.getStatus() == IssueStatus.IN_PROGRESS) {
-                smsNotificationService.notifyInProgress(updated);
-            }
-        } catch (Exception e) { log.warn("SMS failed: {}", e.getMessage()); }
+        // SMS are queued in this transaction and sent only once it commits
+        if (request.getStatus() == IssueStatus.IN_PROGRESS) {
+            smsNotificationService.notifyInProgress(updated);
+        }
 
-        notify(issue.getCreatedBy(), String.format("Status of '%s' updated to %s", issue.getTitle(), request.getStatus()));
+        notificationService.notify(issue.getCreatedBy(), String.format("Status of '%s' updated to %s", issue.getTitle(), request.getStatus()));
+        pushEventBus.issueStatusChanged(updated);
         return mapToResponse(updated);
     }
 
     @Override
     @Transactional
     public IssueResponse resolveIssue(Long id, ResolveIssueRequest request, String userEmail) {
-        Issue issue       = findIssueById(id);
+        Issue issue       = findIssueByIdForUpdate(id);
         User  currentUser = findUserByEmail(userEmail);
         checkZonePermission(issue, currentUser);
 
+        IssueRollupService.Snapshot before = issueRollupService.snapshot(issue);
         issue.setStatus(IssueStatus.RESOLVED);
         issue.setResolvedImageUrl(request.getResolvedImageUrl());
         issue.setResolvedAt(LocalDateTime.now());
         issue.setPriorityScore(priorityScoreService.calculate(issue));
         Issue updated = issueRepository.save(issue);
+        issueRollupService.applyChange(before, issueRollupService.snapshot(updated));
+        zonePriorityIndex.onSaved(updated);
 
-        try { smsNotificationService.notifyResolved(updated); }
-        catch (Exception e) { log.warn("SMS failed: {}", e.getMessage()); }
+        smsNotificationService.notifyResolved(updated);
+        pushEventBus.issueStatusChanged(updated);
 
         return mapToResponse(updated);
     }
@@ -143,20 +313,24 @@ public class IssueServiceImpl implements IssueService {
     @Override
     @Transactional
     public IssueResponse confirmResolution(Long id, String userEmail) {
-        Issue issue    = findIssueById(id);
+        Issue issue    = findIssueByIdForUpdate(id);
         User  reporter = findUserByEmail(userEmail);
 
         if (!issue.getCreatedBy().getId().equals(reporter.getId())) {
             throw new UnauthorizedException("Only the reporter can confirm resolution.");
         }
 
+        IssueRollupService.Snapshot before = issueRollupService.snapshot(issue);
         issue.setStatus(IssueStatus.CLOSED);
         issue.setClosedAt(LocalDateTime.now());
         issue.setPriorityScore(0.0);
         Issue updated = issueRepository.save(issue);
+        issueRollupService.applyChange(before, issueRollupService.snapshot(updated));
+        openIssueIndex.onSaved(updated);
+        zonePriorityIndex.onSaved(updated);
 
-        try { smsNotificationService.notifyClosed(updated); }
-        catch (Exception e) { log.warn("SMS failed: {}", e.getMessage()); }
+        smsNotificationService.notifyClosed(updated);
+        pushEventBus.issueStatusChanged(updated);
 
         return mapToResponse(updated);
     }
@@ -164,21 +338,26 @@ public class IssueServiceImpl implements IssueService {
     @Override
     @Transactional
     public IssueResponse reopenIssue(Long id, ReopenIssueRequest request, String userEmail) {
-        Issue issue    = findIssueById(id);
+        Issue issue    = findIssueByIdForUpdate(id);
         User  reporter = findUserByEmail(userEmail);
 
         if (!issue.getCreatedBy().getId().equals(reporter.getId())) {
             throw new UnauthorizedException("Only the reporter can reopen.");
         }
 
+        IssueRollupService.Snapshot before = issueRollupService.snapshot(issue);
         issue.setStatus(IssueStatus.REOPENED);
         issue.setReopenNote(request.getNote());
+        issue.setReopenCount((issue.getReopenCount() != null ? issue.getReopenCount() : 0) + 1);
         issue.setResolvedImageUrl(null);
         issue.setPriorityScore(priorityScoreService.calculate(issue));
         Issue updated = issueRepository.save(issue);
+        issueRollupService.applyChange(before, issueRollupService.snapshot(updated));
+        openIssueIndex.onSaved(updated);
+        zonePriorityIndex.onSaved(updated);
 
-        try { smsNotificationService.notifyAdminReopened(updated); }
-        catch (Exception e) { log.warn("SMS failed: {}", e.getMessage()); }
+        smsNotificationService.notifyAdminReopened(updated);
+        pushEventBus.issueStatusChanged(updated);
 
         return mapToResponse(updated);
     }
@@ -186,28 +365,19 @@ public class IssueServiceImpl implements IssueService {
     @Override
     @Transactional
     public IssueResponse upvoteIssue(Long id, String userEmail) {
-        Issue issue = findIssueById(id);
-        User user = findUserByEmail(userEmail);
-
-        if (upvoteRepository.existsByIssueAndUser(issue, user)) {
-            // Un-upvote logic
-            upvoteRepository.findByIssueAndUser(issue, user).ifPresent(upvoteRepository::delete);
-            issue.setUpvoteCount(Math.max(0, (issue.getUpvoteCount() != null ? issue.getUpvoteCount() : 1) - 1));
-        } else {
-            // Upvote logic
-            upvoteRepository.save(IssueUpvote.builder().issue(issue).user(user).build());
-            issue.setUpvoteCount((issue.getUpvoteCount() != null ? issue.getUpvoteCount() : 0) + 1);
-        }
-
-        issue.setPriorityScore(priorityScoreService.calculate(issue));
-        Issue saved = issueRepository.save(issue);
-        return mapToResponse(saved);
+        // Atomic toggle without proximity check; reload afterwards for the response
+        upvoteService.toggleUpvote(id, userEmail, null, null);
+        return mapToResponse(findIssueById(id));
     }
 
     @Override
     @Transactional
     public void deleteIssue(Long id) {
-        issueRepository.delete(findIssueById(id));
+        Issue issue = findIssueByIdForUpdate(id);
+        issueRollupService.applyChange(issueRollupService.snapshot(issue), null);
+        issueRepository.delete(issue);
+        openIssueIndex.onDeleted(id);
+        zonePriorityIndex.onDeleted(id);
     }
 
     @Override
@@ -238,10 +408,6 @@ public class IssueServiceImpl implements IssueService {
         throw new UnauthorizedException("Access denied for zone: " + (issue.getZone()));
     }
 
-    private void notify(User user, String message) {
-        notificationRepository.save(Notification.builder().message(message).user(user).build());
-    }
-
     private IssueResponse mapToResponse(Issue issue) {
         List<CommentResponse> comments = issue.getComments() == null ? List.of() :
             issue.getComments().stream().map(c -> CommentResponse.builder()
@@ -268,14 +434,19 @@ public class IssueServiceImpl implements IssueService {
                                 .id(issue.getAssignedTo().getId())
                                 .name(issue.getAssignedTo().getName())
                                 .email(issue.getAssignedTo().getEmail()).build())
-                .comments(comments).build();
+                .comments(comments)
+                .commentCount(comments.size()).build();
     }
 
     private User findUserByEmail(String email) {
-        return userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
+        return userCache.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
     }
 
     private Issue findIssueById(Long id) {
         return issueRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Issue", id));
     }
+
+    private Issue findIssueByIdForUpdate(Long id) {
+        return issueRepository.findByIdForUpdate(id).orElseThrow(() -> new ResourceNotFoundException("Issue", id));
+    }
 }
@@ -1,41 +1,145 @@
 package com.civic.issue.service.impl;
 
+import com.civic.issue.dto.response.CursorPage;
 import com.civic.issue.dto.response.NotificationResponse;
+import com.civic.issue.entity.Notification;
 import com.civic.issue.entity.User;
 import com.civic.issue.repository.NotificationRepository;
-import com.civic.issue.repository.UserRepository;
+import com.civic.issue.repository.NotificationUnreadCountRepository;
 import com.civic.issue.service.NotificationService;
+import com.civic.issue.service.PushEventBus;
+import com.civic.issue.service.UserCache;
+import com.civic.issue.util.NotificationCursor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Notification inbox. Pages are keyset-paginated on (createdAt, id) over
+ * idx_notifications_user_created, so the cost of a page does not grow with
+ * the size of the inbox. The unread badge reads notification_unread_counts,
+ * which every insert and mark-read adjusts in the same transaction.
+ * New notifications and count changes are pushed to open streams once the
+ * transaction commits.
+ */
 @Service
 public class NotificationServiceImpl implements NotificationService {
 
-    private final NotificationRepository notificationRepository;
-    private final UserRepository userRepository;
+    private static final int MAX_PAGE_SIZE = 100;
 
-    public NotificationServiceImpl(NotificationRepository notificationRepository, UserRepository userRepository) {
+    private final NotificationRepository            notificationRepository;
+    private final NotificationUnreadCountRepository unreadCountRepository;
+    private final PushEventBus pushEventBus;
+    private final UserCache userCache;
+
+    public NotificationServiceImpl(NotificationRepository notificationRepository,
+                                   NotificationUnreadCountRepository unreadCountRepository,
+                                   PushEventBus pushEventBus,
+                                   UserCache userCache) {
         this.notificationRepository = notificationRepository;
-        this.userRepository = userRepository;
+        this.unreadCountRepository = unreadCountRepository;
+        this.pushEventBus = pushEventBus;
+        this.userCache = userCache;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationResponse> getMyNotifications(String userEmail, String cursor,
+                                                               int size, boolean unreadOnly) {
+        User user = findUser(userEmail);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<Notification> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = notificationRepository.findInboxFirstPage(user.getId(), unreadOnly, limit);
+        } else {
+            NotificationCursor after = NotificationCursor.decode(cursor);
+            rows = notificationRepository.findInboxAfter(
+                    user.getId(), unreadOnly, after.getCreatedAt(), after.getId(), limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Notification> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Notification last = page.get(page.size() - 1);
+            nextCursor = new NotificationCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(page.stream().map(NotificationServiceImpl::toResponse).toList(), nextCursor);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<NotificationResponse> getMyNotifications(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
+    public long getUnreadCount(String userEmail) {
+        return unread(findUser(userEmail).getId());
+    }
+
+    @Override
+    @Transactional
+    public long markRead(String userEmail, Collection<Long> ids) {
+        Long userId = findUser(userEmail).getId();
+        int flipped = notificationRepository.markRead(userId, ids);
+        if (flipped > 0) unreadCountRepository.decrement(userId, flipped);
+        return pushUnread(userId);
+    }
+
+    @Override
+    @Transactional
+    public long markAllRead(String userEmail) {
+        Long userId = findUser(userEmail).getId();
+        int flipped = notificationRepository.markAllRead(userId);
+        if (flipped > 0) unreadCountRepository.decrement(userId, flipped);
+        return pushUnread(userId);
+    }
+
+    @Override
+    @Transactional
+    public void notify(User user, String message) {
+        Notification saved = notificationRepository.save(Notification.builder().message(message).user(user).build());
+        unreadCountRepository.increment(user.getId(), 1);
+        pushEventBus.publishToUser(user.getId(), PushEventBus.NOTIFICATION, toResponse(saved));
+    }
+
+    @Override
+    @Transactional
+    public void pushUnreadCounts(Collection<Long> userIds) {
+        if (userIds.isEmpty()) return;
+        for (Object[] row : unreadCountRepository.findUnreadByUserIds(userIds)) {
+            long unread = ((Number) row[1]).longValue();
+            pushEventBus.publishToUser(((Number) row[0]).longValue(), PushEventBus.UNREAD, Map.of("unread", unread));
+        }
+    }
+
+    private long unread(Long userId) {
+        return unreadCountRepository.findUnread(userId).orElse(0);
+    }
+
+    // Keeps the user's other tabs and devices in step
+    private long pushUnread(Long userId) {
+        long unread = unread(userId);
+        pushEventBus.publishToUser(userId, PushEventBus.UNREAD, Map.of("unread", unread));
+        return unread;
+    }
+
+    private User findUser(String userEmail) {
+        return userCache.findByEmail(userEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userEmail));
+    }
 
-        return notificationRepository.findByUserOrderByCreatedAtDesc(user)
-                .stream()
-                .map(n -> NotificationResponse.builder()
-                        .id(n.getId())
-                        .message(n.getMessage())
-                        .createdAt(n.getCreatedAt())
-                        .read(n.isRead())
-                        .build())
-                .toList();
+    private static NotificationResponse toResponse(Notification n) {
+        return NotificationResponse.builder()
+                .id(n.getId())
+                .message(n.getMessage())
+                .createdAt(n.getCreatedAt())
+                .read(n.isRead())
+                .build();
     }
 }
@@ -1,24 +1,29 @@
 package com.civic.issue.service.impl;
 
-import com.civic.issue.entity.Issue;
-import com.civic.issue.entity.IssueUpvote;
 import com.civic.issue.entity.User;
 import com.civic.issue.exception.IssueRejectionException;
 import com.civic.issue.exception.ResourceNotFoundException;
 import com.civic.issue.repository.IssueRepository;
+import com.civic.issue.repository.IssueScoreInputs;
 import com.civic.issue.repository.IssueUpvoteRepository;
-import com.civic.issue.repository.UserRepository;
 import com.civic.issue.service.DuplicateDetectionService;
 import com.civic.issue.service.PriorityScoreService;
+import com.civic.issue.service.UpvoteBuffer;
 import com.civic.issue.service.UpvoteService;
+import com.civic.issue.service.UpvotedIssueCache;
+import com.civic.issue.service.UserCache;
+import com.civic.issue.service.ZonePriorityIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class UpvoteServiceImpl implements UpvoteService {
@@ -26,30 +31,52 @@ public class UpvoteServiceImpl implements UpvoteService {
     private static final Logger log = LoggerFactory.getLogger(UpvoteServiceImpl.class);
 
     private final IssueRepository      issueRepository;
-    private final UserRepository       userRepository;
+    private final UserCache            userCache;
     private final IssueUpvoteRepository upvoteRepository;
     private final PriorityScoreService priorityScoreService;
+    private final UpvoteBuffer         upvoteBuffer;
+    private final UpvotedIssueCache    upvotedIssueCache;
+    private final ZonePriorityIndex    zonePriorityIndex;
+
+    /** Largest id list accepted by upvoteStatus (one feed page is 20–50) */
+    private static final int MAX_STATUS_IDS = 200;
 
     // Increased to 2km for user convenience
     private static final double MAX_UPVOTE_DISTANCE = 2000.0; 
 
     public UpvoteServiceImpl(
             IssueRepository issueRepository,
-            UserRepository userRepository,
+            UserCache userCache,
             IssueUpvoteRepository upvoteRepository,
-            PriorityScoreService priorityScoreService) {
+            PriorityScoreService priorityScoreService,
+            UpvoteBuffer upvoteBuffer,
+            UpvotedIssueCache upvotedIssueCache,
+            ZonePriorityIndex zonePriorityIndex) {
         this.issueRepository = issueRepository;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
         this.upvoteRepository = upvoteRepository;
         this.priorityScoreService = priorityScoreService;
+        this.upvoteBuffer = upvoteBuffer;
+        this.upvotedIssueCache = upvotedIssueCache;
+        this.zonePriorityIndex = zonePriorityIndex;
     }
 
+    /**
+     * Toggles without loading the Issue: the issue row is locked first, then
+     * DELETE / INSERT on issue_upvotes and one UPDATE of upvote_count, so
+     * concurrent voters are ordered and no increment is lost.
+     */
     @Override
     @Transactional
     public Map<String, Object> toggleUpvote(Long issueId, String userEmail, Double lat, Double lng) {
-        Issue issue = issueRepository.findById(issueId)
+        // Lock the issue row first; concurrent toggles on this issue queue
+        // here, so the vote lookup, the count and the inputs read below are
+        // the ones the previous toggle or status change committed
+        Integer stored = upvoteBuffer.isEnabled() ? null : issueRepository.lockUpvoteCount(issueId)
+                .orElseThrow(() -> new ResourceNotFoundException("Issue", issueId));
+        IssueScoreInputs issue = issueRepository.findScoreInputs(issueId)
                 .orElseThrow(() -> new ResourceNotFoundException("Issue", issueId));
-        User user = userRepository.findByEmail(userEmail)
+        User user = userCache.findByEmail(userEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userEmail));
 
         // 1. Proximity check
@@ -63,38 +90,85 @@ public class UpvoteServiceImpl implements UpvoteService {
             }
         }
 
-        Optional<IssueUpvote> existing = upvoteRepository.findByIssueAndUser(issue, user);
-        boolean hasUpvoted;
-
-        if (existing.isPresent()) {
-            upvoteRepository.delete(existing.get());
-            issue.setUpvoteCount(Math.max(0, issue.getUpvoteCount() - 1));
-            hasUpvoted = false;
-        } else {
-            // Using manual builder added to IssueUpvote entity
-            upvoteRepository.save(IssueUpvote.builder().issue(issue).user(user).build());
-            issue.setUpvoteCount((issue.getUpvoteCount() == null ? 0 : issue.getUpvoteCount()) + 1);
-            hasUpvoted = true;
+        if (upvoteBuffer.isEnabled()) {
+            return toggleBuffered(issueId, user, issue);
         }
 
-        issue.setPriorityScore(priorityScoreService.calculate(issue));
-        Issue saved = issueRepository.save(issue);
+        // 2. Toggle — remove the vote if there is one, otherwise add it
+        boolean hasUpvoted = upvoteRepository.deleteByIssueIdAndUserId(issueId, user.getId()) == 0;
+        if (hasUpvoted) upvoteRepository.insertIfAbsent(issueId, user.getId());
+        upvotedIssueCache.invalidateAfterCommit(user.getId());
+
+        // 3. Counter + score from the locked count
+        issueRepository.addToUpvoteCount(issueId, hasUpvoted ? 1 : -1);
+        int upvoteCount = Math.max(stored + (hasUpvoted ? 1 : -1), 0);
+        double priorityScore = priorityScoreService.calculate(
+                upvoteCount, issue.getCreatedAt(), issue.getStatus(), issue.getCategory());
+        issueRepository.setPriorityScore(issueId, priorityScore);
+        zonePriorityIndex.onScoreChanged(issueId, issue.getZone(), issue.getStatus(),
+                priorityScore, issue.getCreatedAt());
+
+        log.info("Issue #{} upvoted by {} -> Count: {}", issueId, userEmail, upvoteCount);
+
+        return Map.of(
+            "upvoteCount", upvoteCount,
+            "hasUpvoted", hasUpvoted,
+            "priorityScore", priorityScore
+        );
+    }
+
+    /**
+     * Write-behind variant: the toggle is logged and acknowledged; counts
+     * are the stored count plus whatever is still buffered.
+     */
+    private Map<String, Object> toggleBuffered(Long issueId, User user, IssueScoreInputs issue) {
+        boolean hasUpvoted = upvoteBuffer.toggle(issueId, user.getId(),
+                () -> upvoteRepository.existsByIssueIdAndUserId(issueId, user.getId()));
 
-        log.info("Issue #{} upvoted by {} -> Count: {}", issueId, userEmail, saved.getUpvoteCount());
+        int stored = issue.getUpvoteCount() != null ? issue.getUpvoteCount() : 0;
+        int upvoteCount = Math.max(0, stored + upvoteBuffer.unflushedDelta(issueId));
+        double priorityScore = priorityScoreService.calculate(
+                upvoteCount, issue.getCreatedAt(), issue.getStatus(), issue.getCategory());
 
         return Map.of(
-            "upvoteCount", saved.getUpvoteCount(),
+            "upvoteCount", upvoteCount,
             "hasUpvoted", hasUpvoted,
-            "priorityScore", saved.getPriorityScore()
+            "priorityScore", priorityScore
         );
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean hasUpvoted(Long issueId, String userEmail) {
-        Issue issue = issueRepository.findById(issueId).orElse(null);
-        User user = userRepository.findByEmail(userEmail).orElse(null);
-        if (issue == null || user == null) return false;
-        return upvoteRepository.findByIssueAndUser(issue, user).isPresent();
+        return Boolean.TRUE.equals(upvoteStatus(List.of(issueId), userEmail).get(issueId));
+    }
+
+    /**
+     * Upvote state of each requested issue for one user, from the cached
+     * per-user set (or a single IN query), with unflushed toggles on top.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Boolean> upvoteStatus(List<Long> issueIds, String userEmail) {
+        Set<Long> ids = new LinkedHashSet<>(issueIds);
+        ids.remove(null);
+        if (ids.size() > MAX_STATUS_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_STATUS_IDS + " issue ids per request");
+        }
+
+        Map<Long, Boolean> status = new LinkedHashMap<>();
+        User user = userCache.findByEmail(userEmail).orElse(null);
+        if (user == null || ids.isEmpty()) {
+            ids.forEach(id -> status.put(id, false));
+            return status;
+        }
+
+        Set<Long> upvoted = upvotedIssueCache.upvotedAmong(user.getId(), ids);
+        for (Long id : ids) {
+            // Unflushed toggles win over the stored row
+            Boolean buffered = upvoteBuffer.isEnabled() ? upvoteBuffer.bufferedState(id, user.getId()) : null;
+            status.put(id, buffered != null ? buffered : upvoted.contains(id));
+        }
+        return status;
     }
 }
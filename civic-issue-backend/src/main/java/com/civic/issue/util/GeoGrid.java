@@ -0,0 +1,65 @@
+package com.civic.issue.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed lat/lng grid used to index issue locations.
+ *
+ * A cell is CELL_DEGREES on each side (~111 m north–south). Its id packs the
+ * row and column into one BIGINT, so "issues near P" becomes an equality/IN
+ * lookup on an indexed column instead of a two-column BETWEEN range.
+ */
+public final class GeoGrid {
+
+    /** Cell edge in degrees — must cover the duplicate radius (100 m) in latitude. */
+    public static final double CELL_DEGREES = 0.001;
+
+    private static final long LAT_OFFSET = Math.round(90.0 / CELL_DEGREES);
+    private static final long LNG_OFFSET = Math.round(180.0 / CELL_DEGREES);
+    private static final long COLUMNS    = 2 * LNG_OFFSET + 1;
+
+    private static final double METRES_PER_DEGREE = 111_000.0;
+
+    private GeoGrid() {}
+
+    /** @return the cell id, or null when either coordinate is missing */
+    public static Long cellId(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) return null;
+        return pack(row(latitude), column(longitude));
+    }
+
+    /**
+     * Every cell that may hold a point within {@code radiusMetres} of the
+     * given one: the 3×3 block around it wherever a cell is at least
+     * {@code radiusMetres} wide, widened east–west towards the poles.
+     */
+    public static List<Long> cellsWithin(double latitude, double longitude, double radiusMetres) {
+        long row = row(latitude);
+        long col = column(longitude);
+
+        double cellWidthMetres = CELL_DEGREES * METRES_PER_DEGREE * Math.cos(Math.toRadians(latitude));
+        long rowSpan = (long) Math.ceil(radiusMetres / (CELL_DEGREES * METRES_PER_DEGREE));
+        long colSpan = (long) Math.ceil(radiusMetres / Math.max(cellWidthMetres, 1.0));
+
+        List<Long> cells = new ArrayList<>((int) ((2 * rowSpan + 1) * (2 * colSpan + 1)));
+        for (long r = row - rowSpan; r <= row + rowSpan; r++) {
+            for (long c = col - colSpan; c <= col + colSpan; c++) {
+                cells.add(pack(r, c));
+            }
+        }
+        return cells;
+    }
+
+    private static long row(double latitude) {
+        return (long) Math.floor(latitude / CELL_DEGREES) + LAT_OFFSET;
+    }
+
+    private static long column(double longitude) {
+        return (long) Math.floor(longitude / CELL_DEGREES) + LNG_OFFSET;
+    }
+
+    private static long pack(long row, long column) {
+        return row * COLUMNS + column;
+    }
+}
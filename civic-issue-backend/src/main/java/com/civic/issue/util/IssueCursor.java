@@ -0,0 +1,56 @@
+package com.civic.issue.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for the issue feed.
+ *
+ * Encodes the keyset position (priorityScore, createdAt, id) of the last
+ * issue on a page. Clients must treat the token as an opaque string and
+ * pass it back unchanged to fetch the next page.
+ */
+public final class IssueCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final double        priorityScore;
+    private final LocalDateTime createdAt;
+    private final long          id;
+
+    public IssueCursor(double priorityScore, LocalDateTime createdAt, long id) {
+        this.priorityScore = priorityScore;
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public double getPriorityScore() { return priorityScore; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public long getId() { return id; }
+
+    public String encode() {
+        String raw = priorityScore + SEPARATOR + createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static IssueCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new IssueCursor(
+                    Double.parseDouble(parts[0]),
+                    LocalDateTime.parse(parts[1]),
+                    Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
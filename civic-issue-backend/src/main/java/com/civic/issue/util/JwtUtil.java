@@ -1,11 +1,14 @@
 package com.civic.issue.util;
 
-import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
+import com.civic.issue.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
@@ -15,12 +18,39 @@ import java.util.Date;
 @Component
 public class JwtUtil {
 
+    /** Claim names carried by tokens minted in stateless mode */
+    public static final String CLAIM_ROLE      = "role";
+    // Epoch seconds of the original sign-in, carried over by every renewal
+    public static final String CLAIM_AUTH_TIME = "auth_time";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration-ms}")
     private long jwtExpirationMs;
 
+    // Stateless mode: role/zone are signed into the token and the filter
+    // skips the user lookup; tokens are short-lived and renewed by the filter
+    @Value("${app.jwt.stateless:false}")
+    private boolean stateless;
+
+    @Value("${app.jwt.stateless-expiration-ms:900000}")
+    private long statelessExpirationMs;
+
+    // Renewal stops this long after sign-in, whatever the activity
+    @Value("${app.jwt.max-session-ms:86400000}")
+    private long maxSessionMs;
+
+    // Built once — both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = getSigningKey();
+        parser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
     private SecretKey getSigningKey() {
         // Safe null-check before calling getBytes() to prevent server crash
         String secret = (jwtSecret != null) ? jwtSecret : "unresolved";
@@ -35,41 +65,73 @@ public class JwtUtil {
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
-    public String generateToken(UserDetails userDetails) {
-        return Jwts.builder()
-                .subject(userDetails.getUsername())
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey())
-                .compact();
+    public boolean isStateless() {
+        return stateless;
     }
 
-    public String extractEmail(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+    public long getTokenLifetimeMs() {
+        return stateless ? statelessExpirationMs : jwtExpirationMs;
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        try {
-            String email = extractEmail(token);
-            return email.equals(userDetails.getUsername()) && !isTokenExpired(token);
-        } catch (JwtException | IllegalArgumentException e) {
-            log.error("JWT validation error: {}", e.getMessage());
-            return false;
+    /**
+     * Token for {@code user}. In stateless mode it also carries the role so
+     * requests can be authorised without loading the user.
+     */
+    public String generateToken(User user) {
+        if (!stateless) {
+            return Jwts.builder()
+                    .subject(user.getEmail())
+                    .issuedAt(new Date())
+                    .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
+                    .signWith(signingKey)
+                    .compact();
         }
+        return generateStatelessToken(user, System.currentTimeMillis() / 1000);
+    }
+
+    /**
+     * Fresh stateless token for the current {@code user} record, keeping the
+     * sign-in time of {@code claims}. Callers must check canRenew() first.
+     */
+    public String renewToken(User user, Claims claims) {
+        return generateStatelessToken(user, sessionStart(claims));
+    }
+
+    /** False once the session that minted {@code claims} is older than max-session-ms. */
+    public boolean canRenew(Claims claims) {
+        long ageMs = System.currentTimeMillis() - sessionStart(claims) * 1000;
+        return ageMs < maxSessionMs;
+    }
+
+    // Tokens from before auth_time existed start their session at iat
+    private static long sessionStart(Claims claims) {
+        Number authTime = claims.get(CLAIM_AUTH_TIME, Number.class);
+        if (authTime != null) return authTime.longValue();
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt != null ? issuedAt.getTime() / 1000 : 0;
+    }
+
+    private String generateStatelessToken(User user, long authTime) {
+        return Jwts.builder()
+                .subject(user.getEmail())
+                .claim(CLAIM_ROLE, roleOf(user))
+                .claim(CLAIM_AUTH_TIME, authTime)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + statelessExpirationMs))
+                .signWith(signingKey)
+                .compact();
+    }
+
+    private static String roleOf(User user) {
+        return user.getRole() != null ? user.getRole().name() : "USER";
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expiration = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getExpiration();
-        return expiration.before(new Date());
+    /**
+     * Verifies signature and expiry in a single parse.
+     *
+     * @throws JwtException if the token is invalid or expired
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 }
@@ -0,0 +1,142 @@
+package com.civic.issue.service;
+
+import com.civic.issue.enums.IssueStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * sqlExpression() must rank the live admin queue exactly as calculate()
+ * would score the same rows at the same instant. Evaluates the expression
+ * on H2 in MySQL mode over every status, critical and ordinary categories,
+ * and upvote/age values on both sides of their caps.
+ *
+ * {@code now} is noon and rows are created a whole number of days plus
+ * three hours earlier, so H2's calendar-day TIMESTAMPDIFF agrees with
+ * MySQL's whole elapsed days.
+ */
+class PriorityScoreServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 16, 12, 0);
+
+    private static final int[]    UPVOTES    = {0, 1, 4, 10, 11, 250};
+    private static final int[]    AGE_DAYS   = {0, 1, 7, 13, 14, 15, 90};
+    private static final String[] CATEGORIES = {"Pothole", "Waterlogging", "Sewage", "Drainage",
+                                                "Fallen Tree", "Water Leakage", "Streetlight", "Garbage", null};
+
+    private static SingleConnectionDataSource dataSource;
+    private static NamedParameterJdbcTemplate jdbc;
+
+    private final PriorityScoreService service = new PriorityScoreService();
+
+    private record Row(long id, int upvotes, LocalDateTime createdAt, IssueStatus status, String category) {}
+
+    @BeforeAll
+    static void createTable() {
+        dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:priority;MODE=MySQL;DATABASE_TO_LOWER=TRUE", "sa", "", true);
+        jdbc = new NamedParameterJdbcTemplate(dataSource);
+        jdbc.getJdbcTemplate().execute("""
+                CREATE TABLE issues (
+                    id           BIGINT PRIMARY KEY,
+                    upvote_count INT,
+                    created_at   TIMESTAMP,
+                    status       VARCHAR(20),
+                    category     VARCHAR(50)
+                )
+                """);
+    }
+
+    @AfterAll
+    static void close() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void sqlExpressionMatchesJavaForEveryCombination() {
+        List<Row> rows = new ArrayList<>();
+        long id = 0;
+        for (int upvotes : UPVOTES) {
+            for (int days : AGE_DAYS) {
+                for (IssueStatus status : IssueStatus.values()) {
+                    for (String category : CATEGORIES) {
+                        rows.add(new Row(++id, upvotes, NOW.minusDays(days).minusHours(3), status, category));
+                    }
+                }
+            }
+        }
+        // A row without a creation time gets no age points on either side
+        rows.add(new Row(++id, 3, null, IssueStatus.PENDING, "Pothole"));
+        insert(rows);
+
+        for (Row row : rows) {
+            Double sql = jdbc.queryForObject(
+                    "SELECT " + PriorityScoreService.sqlExpression("i") + " FROM issues i WHERE i.id = :id",
+                    new MapSqlParameterSource("id", row.id()).addValue("now", Timestamp.valueOf(NOW)),
+                    Double.class);
+            double java = service.calculate(row.upvotes(), row.createdAt(), row.status(), row.category(), NOW);
+
+            assertThat(sql).as("score of %s", row).isCloseTo(java, within(1e-3));
+        }
+    }
+
+    @Test
+    void liveQueueOrderFollowsJavaScores() {
+        List<Row> rows = new ArrayList<>();
+        long id = 0;
+        for (int upvotes : UPVOTES) {
+            for (int days : AGE_DAYS) {
+                for (IssueStatus status : IssueStatus.values()) {
+                    rows.add(new Row(++id, upvotes, NOW.minusDays(days).minusHours(3), status, CATEGORIES[(int) (id % CATEGORIES.length)]));
+                }
+            }
+        }
+        insert(rows);
+
+        List<Long> ordered = jdbc.queryForList(
+                "SELECT i.id FROM issues i WHERE i.status <> 'CLOSED' ORDER BY "
+                        + PriorityScoreService.sqlExpression("i") + " DESC, i.created_at DESC, i.id DESC",
+                new MapSqlParameterSource("now", Timestamp.valueOf(NOW)), Long.class);
+
+        assertThat(ordered).hasSize((int) rows.stream().filter(r -> r.status() != IssueStatus.CLOSED).count());
+        double previous = Double.MAX_VALUE;
+        for (Long rowId : ordered) {
+            Row row = rows.get((int) (rowId - 1));
+            double score = service.calculate(row.upvotes(), row.createdAt(), row.status(), row.category(), NOW);
+            assertThat(score).as("score of %s", row).isLessThanOrEqualTo(previous + 1e-3);
+            previous = score;
+        }
+    }
+
+    @Test
+    void capsAtOneHundred() {
+        double score = service.calculate(250, NOW.minusDays(90), IssueStatus.REOPENED, "Pothole", NOW);
+        assertThat(score).isEqualTo(100.0);
+    }
+
+    private static void insert(List<Row> rows) {
+        jdbc.getJdbcTemplate().update("DELETE FROM issues");
+        for (Row row : rows) {
+            jdbc.update("""
+                    INSERT INTO issues (id, upvote_count, created_at, status, category)
+                    VALUES (:id, :upvotes, :createdAt, :status, :category)
+                    """,
+                    new MapSqlParameterSource("id", row.id())
+                            .addValue("upvotes", row.upvotes())
+                            .addValue("createdAt", row.createdAt() != null ? Timestamp.valueOf(row.createdAt()) : null)
+                            .addValue("status", row.status().name())
+                            .addValue("category", row.category()));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.civic.issue.service;
+
+import com.civic.issue.enums.IssueStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Write-behind upvotes against H2 in MySQL mode and a log in a temp
+ * directory. Toggles must be visible through bufferedState and
+ * unflushedDelta while the database is untouched; a flush, or the replay a
+ * new instance runs over a crashed one's log, must leave issue_upvotes and
+ * upvote_count as if every toggle had been written directly.
+ *
+ * Issue 1 starts with one upvote from user 10, issue 2 with none.
+ */
+class UpvoteBufferTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 10, 1, 9, 0);
+
+    @TempDir
+    Path dir;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate               jdbc;
+
+    private final PriorityScoreService priorityScoreService = new PriorityScoreService();
+    private final UpvotedIssueCache    upvotedIssueCache    = mock(UpvotedIssueCache.class);
+    private final ZonePriorityIndex    zonePriorityIndex    = mock(ZonePriorityIndex.class);
+
+    @BeforeEach
+    void createTables() {
+        dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:upvotes;MODE=MySQL;DATABASE_TO_LOWER=TRUE", "sa", "", true);
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("""
+                CREATE TABLE issues (
+                    id             BIGINT PRIMARY KEY,
+                    upvote_count   INT NOT NULL,
+                    priority_score DOUBLE NOT NULL,
+                    created_at     TIMESTAMP,
+                    status         VARCHAR(20),
+                    category       VARCHAR(50),
+                    zone           VARCHAR(20)
+                )
+                """);
+        jdbc.execute("""
+                CREATE TABLE issue_upvotes (
+                    issue_id   BIGINT NOT NULL,
+                    user_id    BIGINT NOT NULL,
+                    created_at TIMESTAMP,
+                    PRIMARY KEY (issue_id, user_id)
+                )
+                """);
+        jdbc.update("INSERT INTO issues VALUES (1, 1, 0, ?, 'PENDING', 'Pothole', 'NORTH')", Timestamp.valueOf(CREATED));
+        jdbc.update("INSERT INTO issues VALUES (2, 0, 0, ?, 'PENDING', 'Garbage', 'SOUTH')", Timestamp.valueOf(CREATED));
+        jdbc.update("INSERT INTO issue_upvotes VALUES (1, 10, ?)", Timestamp.valueOf(CREATED));
+    }
+
+    @AfterEach
+    void dropTables() {
+        jdbc.execute("DROP ALL OBJECTS");
+        dataSource.destroy();
+    }
+
+    @Test
+    void togglesAreBufferedUntilFlushed() throws Exception {
+        UpvoteBuffer buffer = start();
+
+        assertThat(buffer.toggle(1, 11, () -> persisted(1, 11))).isTrue();
+        assertThat(buffer.toggle(1, 10, () -> persisted(1, 10))).isFalse();
+        assertThat(buffer.toggle(2, 12, () -> persisted(2, 12))).isTrue();
+        assertThat(buffer.toggle(2, 12, () -> persisted(2, 12))).isFalse();
+        assertThat(buffer.toggle(2, 12, () -> persisted(2, 12))).isTrue();
+
+        assertThat(buffer.bufferedState(1, 11)).isTrue();
+        assertThat(buffer.bufferedState(1, 10)).isFalse();
+        assertThat(buffer.bufferedState(1, 99)).isNull();
+        assertThat(buffer.unflushedDelta(1)).isZero();
+        assertThat(buffer.unflushedDelta(2)).isEqualTo(1);
+        assertThat(voters(1)).containsExactly(10L);
+        assertThat(upvoteCount(1)).isEqualTo(1);
+        assertThat(upvoteCount(2)).isZero();
+
+        buffer.flush();
+
+        assertFlushed(buffer);
+        verify(upvotedIssueCache).invalidateAll(argThat(ids -> ids.containsAll(List.of(10L, 11L, 12L))));
+        buffer.shutdown();
+    }
+
+    @Test
+    void replaysTheLogOfACrashedInstance() throws Exception {
+        UpvoteBuffer crashed = start();
+        crashed.toggle(1, 11, () -> persisted(1, 11));
+        crashed.toggle(1, 10, () -> persisted(1, 10));
+        crashed.toggle(2, 12, () -> persisted(2, 12));
+        crashed.toggle(2, 12, () -> persisted(2, 12));
+        crashed.toggle(2, 12, () -> persisted(2, 12));
+        // No flush and no shutdown: the process died with everything in the log
+
+        assertThat(voters(1)).containsExactly(10L);
+        UpvoteBuffer restarted = start();
+
+        assertFlushed(restarted);
+        assertThat(dir.resolve("upvotes.log.flushing")).doesNotExist();
+
+        // The database is authoritative again, so the next toggle starts from it
+        assertThat(restarted.toggle(1, 11, () -> persisted(1, 11))).isFalse();
+        assertThat(restarted.unflushedDelta(1)).isEqualTo(-1);
+        restarted.shutdown();
+        assertThat(voters(1)).isEmpty();
+        assertThat(upvoteCount(1)).isZero();
+    }
+
+    private UpvoteBuffer start() throws Exception {
+        UpvoteBuffer buffer = new UpvoteBuffer(jdbc,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                priorityScoreService, upvotedIssueCache, zonePriorityIndex);
+        ReflectionTestUtils.setField(buffer, "enabled", true);
+        ReflectionTestUtils.setField(buffer, "logPath", dir.resolve("upvotes.log").toString());
+        buffer.recover();
+        return buffer;
+    }
+
+    private void assertFlushed(UpvoteBuffer buffer) {
+        assertThat(voters(1)).containsExactly(11L);
+        assertThat(voters(2)).containsExactly(12L);
+        assertThat(upvoteCount(1)).isEqualTo(1);
+        assertThat(upvoteCount(2)).isEqualTo(1);
+        assertThat(priorityScore(2)).isCloseTo(
+                priorityScoreService.calculate(1, CREATED, IssueStatus.PENDING, "Garbage"), within(1e-3));
+
+        assertThat(buffer.bufferedState(1, 11)).isNull();
+        assertThat(buffer.bufferedState(2, 12)).isNull();
+        assertThat(buffer.unflushedDelta(1)).isZero();
+        assertThat(buffer.unflushedDelta(2)).isZero();
+    }
+
+    private boolean persisted(long issueId, long userId) {
+        return !jdbc.queryForList("SELECT 1 FROM issue_upvotes WHERE issue_id = ? AND user_id = ?",
+                Integer.class, issueId, userId).isEmpty();
+    }
+
+    private List<Long> voters(long issueId) {
+        return jdbc.queryForList("SELECT user_id FROM issue_upvotes WHERE issue_id = ? ORDER BY user_id",
+                Long.class, issueId);
+    }
+
+    private int upvoteCount(long issueId) {
+        return jdbc.queryForObject("SELECT upvote_count FROM issues WHERE id = ?", Integer.class, issueId);
+    }
+
+    private double priorityScore(long issueId) {
+        return jdbc.queryForObject("SELECT priority_score FROM issues WHERE id = ?", Double.class, issueId);
+    }
+}
@@ -76,3 +76,133 @@ CREATE TABLE IF NOT EXISTS whatsapp_sessions (
     created_at   DATETIME DEFAULT CURRENT_TIMESTAMP,
     updated_at   DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
+
+-- ── Keyset-paginated issue feed ────────────────────────────────────────────
+CREATE INDEX idx_issues_feed ON issues (priority_score DESC, created_at DESC, id DESC);
+
+-- ── Analytics rollups (maintained by IssueRollupService) ──────────────────
+-- Missing zone/category are stored as '' so the unique keys stay usable.
+CREATE TABLE IF NOT EXISTS issue_rollups (
+    id                   BIGINT AUTO_INCREMENT PRIMARY KEY,
+    bucket_date          DATE        NOT NULL,
+    zone                 VARCHAR(20) NOT NULL DEFAULT '',
+    category             VARCHAR(255) NOT NULL DEFAULT '',
+    status               VARCHAR(20) NOT NULL,
+    issue_count          BIGINT      NOT NULL DEFAULT 0,
+    timed_count          BIGINT      NOT NULL DEFAULT 0,
+    timed_days_sum       BIGINT      NOT NULL DEFAULT 0,
+    timed_breached_count BIGINT      NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_issue_rollups (bucket_date, zone, category, status)
+);
+
+CREATE TABLE IF NOT EXISTS issue_resolution_rollups (
+    id             BIGINT AUTO_INCREMENT PRIMARY KEY,
+    bucket_date    DATE         NOT NULL,
+    zone           VARCHAR(20)  NOT NULL DEFAULT '',
+    category       VARCHAR(255) NOT NULL DEFAULT '',
+    resolved_count BIGINT       NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_issue_resolution_rollups (bucket_date, zone, category)
+);
+
+-- ── Grid cell for duplicate detection (see GeoGrid) ───────────────────────
+-- Existing rows are filled in at startup by GeoCellBackfill.
+ALTER TABLE issues ADD COLUMN IF NOT EXISTS geo_cell BIGINT;
+CREATE INDEX idx_issues_geo_cell ON issues (category, geo_cell, status);
+
+-- ── Per-user upvote lookups (UpvotedIssueCache) ──────────────────────────
+CREATE INDEX idx_issue_upvotes_user ON issue_upvotes (user_id, issue_id);
+
+-- ── Per-zone priority order (ZonePriorityIndex rebuilds) ──────────────────
+CREATE INDEX idx_issues_zone_priority ON issues (zone, priority_score DESC, created_at DESC, id DESC);
+
+-- ── Webhook idempotency (WebhookDeduplicator) ─────────────────────────────
+CREATE TABLE IF NOT EXISTS processed_messages (
+    message_sid VARCHAR(64) PRIMARY KEY,
+    received_at DATETIME    NOT NULL,
+    INDEX idx_processed_messages_received (received_at)
+);
+
+-- ── Session write-through and idle purge (WhatsAppSessionStore) ───────────
+ALTER TABLE whatsapp_sessions ADD COLUMN IF NOT EXISTS temp_description TEXT;
+CREATE INDEX idx_whatsapp_sessions_updated ON whatsapp_sessions (updated_at);
+
+-- ── Outbound WhatsApp/SMS queue (MessageOutbox / OutboxWorker) ────────────
+CREATE TABLE IF NOT EXISTS outbound_messages (
+    id              BIGINT AUTO_INCREMENT PRIMARY KEY,
+    channel         VARCHAR(10)  NOT NULL,
+    to_phone        VARCHAR(30)  NOT NULL,
+    body            TEXT         NOT NULL,
+    status          VARCHAR(10)  NOT NULL DEFAULT 'PENDING',
+    attempts        INT          NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME     NOT NULL,
+    last_error      VARCHAR(500),
+    provider_sid    VARCHAR(64),
+    created_at      DATETIME     NOT NULL,
+    sent_at         DATETIME,
+    INDEX idx_outbound_messages_due (status, next_attempt_at)
+);
+
+-- ── Issue notification outbox keys (SmsNotificationService) ───────────────
+ALTER TABLE issues ADD COLUMN IF NOT EXISTS reopen_count INT DEFAULT 0;
+ALTER TABLE outbound_messages ADD COLUMN IF NOT EXISTS event_type VARCHAR(30);
+ALTER TABLE outbound_messages ADD COLUMN IF NOT EXISTS event_key  VARCHAR(100);
+CREATE UNIQUE INDEX uk_outbound_messages_event ON outbound_messages (event_key);
+
+-- ── SLA breach scan (SlaAlertScheduler) ───────────────────────────────────
+CREATE INDEX idx_issues_status_created ON issues (status, created_at);
+
+-- ── SLA breach snapshots behind the digest notification (SlaAlertScheduler)
+CREATE TABLE IF NOT EXISTS sla_breach_snapshots (
+    id               BIGINT AUTO_INCREMENT PRIMARY KEY,
+    run_date         DATE         NOT NULL,
+    issue_id         BIGINT       NOT NULL,
+    title            VARCHAR(255),
+    zone             VARCHAR(20),
+    assigned_to_id   BIGINT,
+    issue_created_at DATETIME,
+    days_pending     INT          NOT NULL,
+    UNIQUE KEY uk_sla_breach_run_issue (run_date, issue_id),
+    INDEX idx_sla_breach_run_zone (run_date, zone, days_pending)
+);
+
+-- ── Cluster-wide scheduler leases (SchedulerLock) ─────────────────────────
+CREATE TABLE IF NOT EXISTS scheduler_locks (
+    name         VARCHAR(64)  PRIMARY KEY,
+    owner        VARCHAR(255) NOT NULL,
+    locked_at    DATETIME(3)  NOT NULL,
+    locked_until DATETIME(3)  NOT NULL
+);
+
+-- ── SLA breach scan sharded by zone (SlaAlertScheduler) ───────────────────
+CREATE TABLE IF NOT EXISTS sla_breach_shards (
+    run_date     DATE         NOT NULL,
+    shard        VARCHAR(20)  NOT NULL,
+    owner        VARCHAR(255) NOT NULL,
+    completed_at DATETIME     NOT NULL,
+    PRIMARY KEY (run_date, shard)
+);
+ALTER TABLE sla_breach_snapshots ADD COLUMN IF NOT EXISTS recipient_id BIGINT;
+CREATE INDEX idx_issues_zone_status_created ON issues (zone, status, created_at);
+DROP INDEX idx_issues_status_created ON issues;
+
+-- ── Notification inbox paging and unread counter (NotificationServiceImpl) ─
+CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_at DESC, id DESC);
+CREATE TABLE IF NOT EXISTS notification_unread_counts (
+    user_id BIGINT PRIMARY KEY,
+    unread  INT    NOT NULL
+);
+-- Seed counters from existing rows (run once, before the new backend starts)
+INSERT INTO notification_unread_counts (user_id, unread)
+SELECT user_id, COUNT(*) FROM notifications WHERE is_read = FALSE GROUP BY user_id
+ON DUPLICATE KEY UPDATE unread = VALUES(unread);
+
+-- ── Outbox claimed per channel (OutboxWorker) ─────────────────────────────
+DROP INDEX idx_outbound_messages_due ON outbound_messages;
+CREATE INDEX idx_outbound_messages_due ON outbound_messages (channel, status, next_attempt_at);
+
+-- ── Session cache revalidation across instances (WhatsAppSessionStore) ────
+ALTER TABLE whatsapp_sessions MODIFY updated_at DATETIME(6);
+
+-- ── Feed cursor needs a non-NULL priority_score (IssueServiceImpl.getIssueFeed)
+UPDATE issues SET priority_score = 0.0 WHERE priority_score IS NULL;
+ALTER TABLE issues MODIFY priority_score DOUBLE NOT NULL DEFAULT 0.0;